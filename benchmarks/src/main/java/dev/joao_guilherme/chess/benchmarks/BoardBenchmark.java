@@ -0,0 +1,69 @@
+package dev.joao_guilherme.chess.benchmarks;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.Position;
+import dev.joao_guilherme.chess.board.Zobrist;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Moves;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Playing and taking back every legal move of a position, once through the search's
+ * {@link Board#makeMove(int)} and once through the UI's {@link Board#movePiece(Position, Position)}
+ * and {@link Board#undo()}, plus rebuilding the Zobrist key from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME, Positions.PROMOTIONS})
+    public String position;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private Board board;
+    private int moveCount;
+
+    @Setup
+    public void setUp() {
+        board = Positions.board(position);
+        moveCount = MoveGenerator.generateLegal(board, board.getTurn().index(), moves);
+    }
+
+    @Benchmark
+    public long makeUnmake() {
+        long keys = 0;
+        for (int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+            keys ^= board.getZobristKey();
+            board.unmakeMove();
+        }
+        return keys;
+    }
+
+    /**
+     * Promotions are skipped: the UI path stops to ask which piece to promote to.
+     */
+    @Benchmark
+    public long movePieceUndo() {
+        long keys = 0;
+        for (int i = 0; i < moveCount; i++) {
+            if (Moves.promotion(moves[i]) != 0) continue;
+            if (board.movePiece(Position.of(Moves.from(moves[i])), Position.of(Moves.to(moves[i])))) {
+                keys ^= board.getZobristKey();
+                board.undo();
+            }
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public long computeHash() {
+        return Zobrist.computeHash(board);
+    }
+}
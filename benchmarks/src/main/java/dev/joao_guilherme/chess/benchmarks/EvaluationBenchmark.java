@@ -0,0 +1,34 @@
+package dev.joao_guilherme.chess.benchmarks;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.engine.BoardEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full static evaluation, without the pawn or evaluation caches the search puts in front of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Param({Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME, Positions.PROMOTIONS})
+    public String position;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        board = Positions.board(position);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return BoardEvaluator.evaluate(board);
+    }
+}
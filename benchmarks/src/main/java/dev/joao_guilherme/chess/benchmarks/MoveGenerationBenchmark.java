@@ -0,0 +1,42 @@
+package dev.joao_guilherme.chess.benchmarks;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legal move generation on its own and a shallow perft, which adds make/unmake to it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME, Positions.PROMOTIONS})
+    public String position;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final Perft perft = new Perft();
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        board = Positions.board(position);
+    }
+
+    @Benchmark
+    public int generateLegal() {
+        return MoveGenerator.generateLegal(board, board.getTurn().index(), moves);
+    }
+
+    @Benchmark
+    public long perft3() {
+        return perft.count(board, 3);
+    }
+}
@@ -0,0 +1,36 @@
+package dev.joao_guilherme.chess.benchmarks;
+
+import dev.joao_guilherme.chess.board.Board;
+
+import java.util.Map;
+
+/**
+ * The fixed corpus every benchmark runs over, named so JMH can report each position separately.
+ * Besides the opening they are the usual perft test positions, which are dense in castling,
+ * en passant, promotions and checks, plus a quiet middlegame and a pawn endgame.
+ */
+final class Positions {
+
+    static final String START = "start";
+    static final String KIWIPETE = "kiwipete";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+    static final String PROMOTIONS = "promotions";
+
+    private static final Map<String, String> FENS = Map.of(
+            START, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            KIWIPETE, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            MIDDLEGAME, "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP2BPPP/R2QKB1R w KQ - 0 8",
+            ENDGAME, "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            PROMOTIONS, "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"
+    );
+
+    private Positions() {
+    }
+
+    static Board board(String name) {
+        String fen = FENS.get(name);
+        if (fen == null) throw new IllegalArgumentException("Unknown position: " + name);
+        return Board.fromFen(fen);
+    }
+}
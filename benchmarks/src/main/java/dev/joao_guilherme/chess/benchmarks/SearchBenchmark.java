@@ -0,0 +1,46 @@
+package dev.joao_guilherme.chess.benchmarks;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.engine.ChessEngine;
+import dev.joao_guilherme.chess.engine.SearchLimits;
+import dev.joao_guilherme.chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-depth single-threaded search from an empty transposition table, so every invocation
+ * does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME, Positions.PROMOTIONS})
+    public String position;
+
+    @Param({"6"})
+    public int depth;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        ChessEngine.setThreads(1);
+        board = Positions.board(position);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearHash() {
+        ChessEngine.clearHash();
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return ChessEngine.search(board, SearchLimits.depth(depth));
+    }
+}
@@ -3,7 +3,9 @@ package dev.joao_guilherme.chess.board;
 import dev.joao_guilherme.chess.enums.Color;
 import dev.joao_guilherme.chess.events.*;
 import dev.joao_guilherme.chess.movements.MoveExecutor;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
 import dev.joao_guilherme.chess.movements.MoveRecord;
+import dev.joao_guilherme.chess.movements.Moves;
 import dev.joao_guilherme.chess.movements.handlers.*;
 import dev.joao_guilherme.chess.pieces.*;
 
@@ -18,6 +20,32 @@ import static dev.joao_guilherme.chess.enums.Color.WHITE;
 //TODO 25/01/2026: - Godclass necessita de refatoração, passando instância para Movement permitindo que o movimento das peças fique sobre controle total delas mesmas.
 public class Board implements Cloneable {
 
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    /**
+     * Deepest line {@link #makeMove(int)} can hold on its undo stack.
+     */
+    public static final int MAX_UNDO_DEPTH = 256;
+
+    /**
+     * Castling rights that survive a move touching each square: moving or capturing on a king or
+     * corner rook square clears the matching rights.
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[E1.index()] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[H1.index()] &= ~WHITE_KING_SIDE;
+        CASTLING_MASK[A1.index()] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[E8.index()] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[H8.index()] &= ~BLACK_KING_SIDE;
+        CASTLING_MASK[A8.index()] &= ~BLACK_QUEEN_SIDE;
+    }
+
     private final Position[][] positions = {
             {A8, B8, C8, D8, E8, F8, G8, H8},
             {A7, B7, C7, D7, E7, F7, G7, H7},
@@ -34,14 +62,32 @@ public class Board implements Cloneable {
     private Position enPassantAvailablePosition;
     private Map<Color, Set<Piece>> pieces;
     private Map<Position, Piece> pieceByPosition;
+    private final PieceBitboards bitboards;
     private Color turn;
+    private int castlingRights;
+    private long zobristKey;
+    private long enPassantKey;
     private int halfMoveClock = 0;
     private final Map<Long, Integer> positionHistory = new HashMap<>();
 
+    private final int[] undoMoves = new int[MAX_UNDO_DEPTH];
+    private final Piece[] undoMovedPieces = new Piece[MAX_UNDO_DEPTH];
+    private final Piece[] undoCapturedPieces = new Piece[MAX_UNDO_DEPTH];
+    private final Piece[] undoPromotedPieces = new Piece[MAX_UNDO_DEPTH];
+    private final int[] undoMoveCounts = new int[MAX_UNDO_DEPTH];
+    private final int[] undoCastlingRights = new int[MAX_UNDO_DEPTH];
+    private final int[] undoHalfMoveClocks = new int[MAX_UNDO_DEPTH];
+    private final Position[] undoEnPassant = new Position[MAX_UNDO_DEPTH];
+    private final long[] undoEnPassantKeys = new long[MAX_UNDO_DEPTH];
+    private final long[] undoKeys = new long[MAX_UNDO_DEPTH];
+    private int undoCount = 0;
+
     public Board(EventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
-        setupInitialPositions();
+        this.bitboards = new PieceBitboards();
         this.turn = WHITE;
+        setupInitialPositions();
+        refreshCastlingRights();
         this.moveExecutor = new MoveExecutor(
                 this,
                 List.of(
@@ -63,8 +109,13 @@ public class Board implements Cloneable {
         this.turn = board.turn;
         this.eventPublisher = new EventPublisher();
         this.enPassantAvailablePosition = board.enPassantAvailablePosition;
+        this.castlingRights = board.castlingRights;
+        this.zobristKey = board.zobristKey;
+        this.enPassantKey = board.enPassantKey;
         this.halfMoveClock = board.halfMoveClock;
         this.positionHistory.putAll(board.positionHistory);
+        // Copied whole, attack maps and running totals included, rather than rebuilt piece by piece.
+        this.bitboards = new PieceBitboards(board.bitboards);
 
         for (Piece piece : board.getPieces()) {
             Piece clone = piece.clone();
@@ -122,22 +173,89 @@ public class Board implements Cloneable {
                 new Pawn(BLACK, H7)
         ).stream().collect(Collectors.groupingBy(Piece::getColor, Collectors.toSet()));
         pieceByPosition = pieces.values().stream().flatMap(Set::stream).collect(Collectors.toMap(Piece::getPosition, piece -> piece));
+        pieceByPosition.forEach((position, piece) -> placeOnBitboards(position.index(), PieceBitboards.code(piece)));
+    }
+
+    /**
+     * A board set up from Forsyth-Edwards Notation. Castling rights are kept as unmoved kings and
+     * rooks, pawns on their starting rank count as unmoved and every other piece as moved. The
+     * full move number is ignored.
+     */
+    public static Board fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) throw new IllegalArgumentException("Invalid FEN: " + fen);
+        Board board = new Board(new EventPublisher());
+        board.loadFen(fields, fen);
+        return board;
+    }
+
+    private void loadFen(String[] fields, String fen) {
+        getPieces().forEach(this::removePiece);
+
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("Invalid FEN: " + fen);
+        for (int row = 0; row < 8; row++) {
+            int file = 0;
+            for (char symbol : ranks[row].toCharArray()) {
+                if (Character.isDigit(symbol)) {
+                    file += symbol - '0';
+                    continue;
+                }
+                if (file > 7) throw new IllegalArgumentException("Invalid FEN: " + fen);
+                Color color = Character.isUpperCase(symbol) ? WHITE : BLACK;
+                Position position = Position.of(file++, 8 - row);
+                Piece piece = switch (Character.toLowerCase(symbol)) {
+                    case 'p' -> new Pawn(color, position);
+                    case 'n' -> new Knight(color, position);
+                    case 'b' -> new Bishop(color, position);
+                    case 'r' -> new Rook(color, position);
+                    case 'q' -> new Queen(color, position);
+                    case 'k' -> new King(color, position);
+                    default -> throw new IllegalArgumentException("Invalid FEN: " + fen);
+                };
+                boolean unmovedPawn = piece instanceof Pawn && position.rank() == (color == WHITE ? 2 : 7);
+                piece.setMoveCount(unmovedPawn ? 0 : 1);
+                addPiece(piece);
+            }
+        }
+
+        turn = fields[1].equals("b") ? BLACK : WHITE;
+        for (char right : fields[2].toCharArray()) {
+            switch (right) {
+                case 'K' -> markUnmoved(E1, H1);
+                case 'Q' -> markUnmoved(E1, A1);
+                case 'k' -> markUnmoved(E8, H8);
+                case 'q' -> markUnmoved(E8, A8);
+                case '-' -> { }
+                default -> throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+        }
+        refreshCastlingRights();
+        halfMoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+        enPassantAvailablePosition = fields[3].equals("-") ? null : Position.fromString(fields[3]);
+        enPassantKey = Zobrist.enPassant(bitboards, enPassantAvailablePosition);
+        zobristKey = Zobrist.computeHash(this);
+        positionHistory.clear();
+        updatePositionHistory();
+    }
+
+    private void markUnmoved(Position kingSquare, Position rookSquare) {
+        Piece king = pieceByPosition.get(kingSquare);
+        Piece rook = pieceByPosition.get(rookSquare);
+        if (king instanceof King && rook instanceof Rook) {
+            king.setMoveCount(0);
+            rook.setMoveCount(0);
+        }
     }
 
     //TODO 25/01/2026: - Criar eventos para cheque e cheque-mate
     public boolean isCheckMate(Color color) {
-        if (!isCheck(color)) return false;
-        for (Piece piece : pieces.get(color)) {
-            if (!piece.getPossibleMoves(this).isEmpty()) {
-                return false;
-            }
-        }
-        return true;
+        return isCheck(color) && !MoveGenerator.hasLegalMove(this, color);
     }
 
     //TODO 24/01/2026: - Identificar quando não for mais possivel fazer checkmate
     public boolean isStaleMate(Color color) {
-        return !isCheck(color) && pieces.get(color).stream().allMatch(piece -> piece.getPossibleMoves(this).isEmpty());
+        return !isCheck(color) && !MoveGenerator.hasLegalMove(this, color);
     }
 
     public boolean isDraw() {
@@ -148,9 +266,17 @@ public class Board implements Cloneable {
         return halfMoveClock >= 100;
     }
 
+    /**
+     * Counts the game history plus the positions reached through {@link #makeMove(int)}, which are
+     * not entered in the history.
+     */
     public boolean isThreefoldRepetition() {
-        long key = Zobrist.computeHash(this);
-        return positionHistory.getOrDefault(key, 0) >= 3;
+        int occurrences = positionHistory.getOrDefault(zobristKey, 0);
+        if (undoCount > 0) occurrences++;
+        for (int i = undoCount - 1; i > 0 && occurrences < 3; i--) {
+            if (undoKeys[i] == zobristKey) occurrences++;
+        }
+        return occurrences >= 3;
     }
 
     public boolean isInsufficientMaterial() {
@@ -170,8 +296,11 @@ public class Board implements Cloneable {
                 pieceAtTarget = getPieceAt(from);
             }
             Pawn pawn = (Pawn) pieceAtTarget;
-            MoveRecord lastRecord = history.pop();
-            if (lastRecord != null) {
+            MoveRecord lastRecord = history.peek();
+            boolean alreadyRecorded = lastRecord != null && lastRecord.movedPiece() == pawn && promotionPosition.equals(lastRecord.to());
+            if (alreadyRecorded) {
+                decrementPositionHistory();
+                history.pop();
                 MoveRecord completedRecord = new MoveRecord(
                         lastRecord.from(), lastRecord.to(), lastRecord.movedPiece(),
                         lastRecord.capturedPiece(), lastRecord.promotedFrom(),
@@ -184,8 +313,11 @@ public class Board implements Cloneable {
                 history.push(completedRecord);
             }
 
+            removePiece(pawn);
+            addPiece(promotedPiece);
             eventPublisher.publish(new PromoteEvent(pawn, promotedPiece, promotionPosition));
             nextTurn();
+            if (alreadyRecorded) updatePositionHistory();
             return true;
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid piece class for promotion: " + tClass.getName(), e);
@@ -211,10 +343,10 @@ public class Board implements Cloneable {
                         .getConstructor(Color.class, Position.class)
                         .newInstance(piece.getColor(), to);
 
-                pieces.get(piece.getColor()).remove(piece);
-                pieceByPosition.remove(from);
-                pieces.get(piece.getColor()).add(promotedPiece);
-                pieceByPosition.put(to, promotedPiece);
+                updatePiecePosition(piece, from, to);
+                removePiece(piece);
+                addPiece(promotedPiece);
+                clearEnPassant();
 
                 MoveRecord record = new MoveRecord(
                         from, to, piece,
@@ -228,31 +360,14 @@ public class Board implements Cloneable {
                         oldMoveCount,
                         oldHalfMoveClock
                 );
-                recordMove(record);
-
                 nextTurn();
+                recordMove(record);
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
     }
 
-    public boolean isPieceMovementAvoidingCheck(Piece piece, Position to) {
-        if (piece == null || !pieces.get(piece.getColor()).contains(piece) || !piece.isValidMove(this, to)) return false;
-        Optional<Piece> captured = findPieceAt(to);
-        Position from = piece.getPosition();
-
-        captured.ifPresent(this::capture);
-        updatePiecePosition(piece, from, to);
-
-        boolean safe = !findKing(piece.getColor()).isInCheck(this);
-
-        updatePiecePosition(piece, to, from);
-        captured.ifPresent(this::unCapture);
-
-        return safe;
-    }
-
     public Piece getPieceAt(Position position) {
         return findPieceAt(position).orElseThrow(() -> new IllegalArgumentException("No piece at " + position));
     }
@@ -283,17 +398,28 @@ public class Board implements Cloneable {
     private void capture(Piece captured) {
         pieces.get(captured.getColor()).remove(captured);
         pieceByPosition.remove(captured.getPosition());
-    }
-
-    private void unCapture(Piece captured) {
-        pieces.get(captured.getColor()).add(captured);
-        pieceByPosition.put(captured.getPosition(), captured);
+        removeFromBitboards(captured.getPosition().index());
     }
 
     public void updatePiecePosition(Piece piece, Position from, Position to) {
         pieceByPosition.remove(from);
+        removeFromBitboards(from.index());
         piece.setPosition(to);
         pieceByPosition.put(to, piece);
+        placeOnBitboards(to.index(), PieceBitboards.code(piece));
+    }
+
+    private void placeOnBitboards(int square, int code) {
+        removeFromBitboards(square);
+        bitboards.put(square, code);
+        zobristKey ^= Zobrist.piece(code, square);
+    }
+
+    private void removeFromBitboards(int square) {
+        int code = bitboards.pieceAt(square);
+        if (code == PieceBitboards.EMPTY) return;
+        bitboards.remove(square);
+        zobristKey ^= Zobrist.piece(code, square);
     }
 
     public boolean movePiece(Position from, Position to) {
@@ -301,7 +427,7 @@ public class Board implements Cloneable {
         if (piece == null) return false;
         if (piece.getColor() != turn) return false;
         if (!piece.isValidMove(this, to)) return false;
-        if (!isPieceMovementAvoidingCheck(piece, to)) return false;
+        if (!MoveGenerator.isLegal(this, from, to)) return false;
         return moveExecutor.executeMove(from, to);
     }
 
@@ -311,9 +437,7 @@ public class Board implements Cloneable {
 
         Piece piece = rec.movedPiece();
 
-        this.turn = this.turn.opposite();
-
-        this.enPassantAvailablePosition = rec.enPassantSquareBefore();
+        switchTurn();
 
         if (rec.capturedPiece() != null) {
             removePiece(rec.capturedPiece());
@@ -329,14 +453,15 @@ public class Board implements Cloneable {
             updatePiecePosition(promoted, rec.from(), rec.to());
         }
 
-        this.enPassantAvailablePosition = rec.enPassantSquareAfter();
-
         if (rec.castling()) {
             Piece rook = getPieceAt(rec.rookFrom());
             updatePiecePosition(rook, rec.rookFrom(), rec.rookTo());
             rook.incrementMoveCount();
         }
 
+        setEnPassant(rec.enPassantSquareAfter());
+        refreshCastlingRights();
+
         if (rec.movedPiece() instanceof Pawn || rec.capturedPiece() != null) {
             halfMoveClock = 0;
         } else {
@@ -352,9 +477,7 @@ public class Board implements Cloneable {
         MoveRecord rec = history.pop();
         if (rec == null) return;
 
-        this.turn = this.turn.opposite();
-
-        this.enPassantAvailablePosition = rec.enPassantSquareBefore();
+        switchTurn();
 
         Piece piece = rec.movedPiece();
 
@@ -372,9 +495,7 @@ public class Board implements Cloneable {
         }
 
         if (rec.capturedPiece() != null) {
-            Piece captured = rec.capturedPiece();
-            addPiece(captured);
-            pieceByPosition.put(captured.getPosition(), captured);
+            addPiece(rec.capturedPiece());
         }
 
         if (rec.castling()) {
@@ -383,28 +504,140 @@ public class Board implements Cloneable {
             rook.setMoveCount(rook.getMoveCount() - 1);
         }
 
+        setEnPassant(rec.enPassantSquareBefore());
+        refreshCastlingRights();
         this.halfMoveClock = rec.oldHalfMoveClock();
         history.pushRedo(rec);
     }
 
+    /**
+     * Plays a legal {@link Moves}-encoded move for the search. Unlike {@link #movePiece} it runs no
+     * move handlers, publishes no events and records nothing in the history; everything needed to take
+     * it back goes on a preallocated undo stack consumed by {@link #unmakeMove()}.
+     */
+    public void makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        Position fromPosition = Position.of(from);
+        Position toPosition = Position.of(to);
+        Piece piece = pieceByPosition.get(fromPosition);
+
+        int ply = undoCount++;
+        undoMoves[ply] = move;
+        undoMovedPieces[ply] = piece;
+        undoMoveCounts[ply] = piece.getMoveCount();
+        undoCastlingRights[ply] = castlingRights;
+        undoHalfMoveClocks[ply] = halfMoveClock;
+        undoEnPassant[ply] = enPassantAvailablePosition;
+        undoEnPassantKeys[ply] = enPassantKey;
+        undoKeys[ply] = zobristKey;
+
+        boolean pawn = piece instanceof Pawn;
+        Position capturedPosition = pawn && toPosition.equals(enPassantAvailablePosition) ? Position.of(toPosition.file(), fromPosition.rank()) : toPosition;
+        Piece captured = pieceByPosition.get(capturedPosition);
+        undoCapturedPieces[ply] = captured;
+        if (captured != null) capture(captured);
+
+        updatePiecePosition(piece, fromPosition, toPosition);
+        piece.incrementMoveCount();
+
+        if (piece instanceof King && Math.abs(to - from) == 2) {
+            boolean kingSide = to > from;
+            Position rookFrom = Position.of(kingSide ? from + 3 : from - 4);
+            Piece rook = pieceByPosition.get(rookFrom);
+            updatePiecePosition(rook, rookFrom, Position.of(kingSide ? from + 1 : from - 1));
+            rook.incrementMoveCount();
+        }
+
+        Piece promoted = null;
+        if (Moves.promotion(move) != 0) {
+            promoted = createPromotedPiece(Moves.promotion(move), piece.getColor(), toPosition);
+            removePiece(piece);
+            addPiece(promoted);
+        }
+        undoPromotedPieces[ply] = promoted;
+
+        if (pawn && Math.abs(to - from) == 16) setEnPassantPossible(fromPosition, toPosition);
+        else clearEnPassant();
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        halfMoveClock = pawn || captured != null ? 0 : halfMoveClock + 1;
+        switchTurn();
+    }
+
+    /**
+     * Takes back the last {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        int ply = --undoCount;
+        int move = undoMoves[ply];
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        Position fromPosition = Position.of(from);
+        Position toPosition = Position.of(to);
+        Piece piece = undoMovedPieces[ply];
+
+        if (undoPromotedPieces[ply] != null) {
+            removePiece(undoPromotedPieces[ply]);
+            addPiece(piece);
+            undoPromotedPieces[ply] = null;
+        }
+        updatePiecePosition(piece, toPosition, fromPosition);
+        piece.setMoveCount(undoMoveCounts[ply]);
+
+        if (piece instanceof King && Math.abs(to - from) == 2) {
+            boolean kingSide = to > from;
+            Position rookTo = Position.of(kingSide ? from + 1 : from - 1);
+            Piece rook = pieceByPosition.get(rookTo);
+            updatePiecePosition(rook, rookTo, Position.of(kingSide ? from + 3 : from - 4));
+            rook.setMoveCount(rook.getMoveCount() - 1);
+        }
+
+        Piece captured = undoCapturedPieces[ply];
+        if (captured != null) {
+            addPiece(captured);
+            undoCapturedPieces[ply] = null;
+        }
+
+        turn = turn.opposite();
+        enPassantAvailablePosition = undoEnPassant[ply];
+        enPassantKey = undoEnPassantKeys[ply];
+        castlingRights = undoCastlingRights[ply];
+        halfMoveClock = undoHalfMoveClocks[ply];
+        zobristKey = undoKeys[ply];
+    }
+
+    private static Piece createPromotedPiece(int type, Color color, Position position) {
+        return switch (type) {
+            case PieceBitboards.KNIGHT -> new Knight(color, position);
+            case PieceBitboards.BISHOP -> new Bishop(color, position);
+            case PieceBitboards.ROOK -> new Rook(color, position);
+            default -> new Queen(color, position);
+        };
+    }
+
+    private void setCastlingRights(int rights) {
+        zobristKey ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
     private void updatePositionHistory() {
-        long key = Zobrist.computeHash(this);
-        positionHistory.merge(key, 1, Integer::sum);
+        positionHistory.merge(zobristKey, 1, Integer::sum);
     }
 
     private void decrementPositionHistory() {
-        long key = Zobrist.computeHash(this);
-        positionHistory.computeIfPresent(key, (k, v) -> v - 1);
+        positionHistory.computeIfPresent(zobristKey, (k, v) -> v - 1);
     }
 
     public void addPiece(Piece piece) {
         pieces.get(piece.getColor()).add(piece);
         pieceByPosition.put(piece.getPosition(), piece);
+        placeOnBitboards(piece.getPosition().index(), PieceBitboards.code(piece));
     }
 
     public void removePiece(Piece piece) {
         pieces.get(piece.getColor()).remove(piece);
         pieceByPosition.remove(piece.getPosition());
+        removeFromBitboards(piece.getPosition().index());
     }
 
     public Color getTurn() {
@@ -412,12 +645,33 @@ public class Board implements Cloneable {
     }
 
     public void nextTurn() {
-        turn = turn.opposite();
+        switchTurn();
         eventPublisher.publish(new TurnEvent(turn, history.peek()));
     }
 
+    private void switchTurn() {
+        turn = turn.opposite();
+        zobristKey ^= Zobrist.sideToMove();
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning. Nothing is recorded in the history; the
+     * returned en passant square has to be handed back to {@link #undoNullMove(Position)}.
+     */
+    public Position makeNullMove() {
+        Position enPassant = enPassantAvailablePosition;
+        clearEnPassant();
+        switchTurn();
+        return enPassant;
+    }
+
+    public void undoNullMove(Position enPassant) {
+        switchTurn();
+        setEnPassant(enPassant);
+    }
+
     public boolean isEnPassantLocation(Color color, Position from) {
-        return (enPassantAvailablePosition != null && enPassantAvailablePosition.equals(from)) && from.rank() == (color == WHITE ? 6 : 2);
+        return (enPassantAvailablePosition != null && enPassantAvailablePosition.equals(from)) && from.rank() == (color == WHITE ? 6 : 3);
     }
 
     public King findKing(Color color) {
@@ -425,7 +679,11 @@ public class Board implements Cloneable {
     }
 
     public boolean isCheck(Color color) {
-        return findKing(color).isInCheck(this);
+        return isSquareAttacked(Position.of(bitboards.kingSquare(color.index())), color.opposite());
+    }
+
+    public boolean isSquareAttacked(Position position, Color byColor) {
+        return bitboards.isAttacked(position.index(), byColor.index());
     }
 
     @Override
@@ -433,16 +691,57 @@ public class Board implements Cloneable {
         return new Board(this);
     }
 
+    /**
+     * Copies the position for use on another thread; must be called from the thread that owns this
+     * board.
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(this);
+    }
+
     public EventPublisher getEventPublisher() {
         return eventPublisher;
     }
 
     public void clearEnPassant() {
-        this.enPassantAvailablePosition = null;
+        setEnPassant(null);
     }
 
     public void setEnPassantPossible(Position from, Position to) {
-        this.enPassantAvailablePosition = Position.of(from.file(), (from.rank() + to.rank()) / 2);
+        setEnPassant(Position.of(from.file(), (from.rank() + to.rank()) / 2));
+    }
+
+    private void setEnPassant(Position enPassantPosition) {
+        zobristKey ^= enPassantKey;
+        this.enPassantAvailablePosition = enPassantPosition;
+        this.enPassantKey = Zobrist.enPassant(bitboards, enPassantPosition);
+        zobristKey ^= enPassantKey;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Castling rights follow the existing move-count rules: a side keeps a right while its king and the
+     * matching corner rook have never moved.
+     */
+    private void refreshCastlingRights() {
+        int rights = castlingRightFor(E1, H1, WHITE_KING_SIDE) | castlingRightFor(E1, A1, WHITE_QUEEN_SIDE)
+                | castlingRightFor(E8, H8, BLACK_KING_SIDE) | castlingRightFor(E8, A8, BLACK_QUEEN_SIDE);
+        setCastlingRights(rights);
+    }
+
+    private int castlingRightFor(Position kingSquare, Position rookSquare, int right) {
+        Piece king = pieceByPosition.get(kingSquare);
+        Piece rook = pieceByPosition.get(rookSquare);
+        boolean available = king instanceof King && !king.hasMoved()
+                && rook instanceof Rook && !rook.hasMoved() && rook.isSameColor(king);
+        return available ? right : 0;
+    }
+
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     public void recordMove(MoveRecord record) {
@@ -454,6 +753,7 @@ public class Board implements Cloneable {
 
         history.push(record);
 
+        refreshCastlingRights();
         updatePositionHistory();
     }
 
@@ -464,4 +764,8 @@ public class Board implements Cloneable {
     public HistoryManager getHistoryManager() {
         return history;
     }
+
+    public PieceBitboards getBitboards() {
+        return bitboards;
+    }
 }
@@ -0,0 +1,34 @@
+package dev.joao_guilherme.chess.board;
+
+import dev.joao_guilherme.chess.enums.Color;
+
+/**
+ * Frozen copy of a board, taken on the thread that owns the live board and safe to hand to any other
+ * thread. It keeps the position together with the keys of the game history, so repetitions are still
+ * detected, but no listeners: boards created from it publish into an event publisher of their own.
+ * <p>
+ * The copy inside is never mutated, so any number of threads may call {@link #toBoard()} at once.
+ */
+public final class BoardSnapshot {
+
+    private final Board position;
+
+    BoardSnapshot(Board board) {
+        this.position = board.clone();
+    }
+
+    /**
+     * A new, fully independent board for the caller to play moves on.
+     */
+    public Board toBoard() {
+        return position.clone();
+    }
+
+    public Color getTurn() {
+        return position.getTurn();
+    }
+
+    public long getZobristKey() {
+        return position.getZobristKey();
+    }
+}
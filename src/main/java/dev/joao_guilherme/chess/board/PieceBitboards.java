@@ -0,0 +1,267 @@
+package dev.joao_guilherme.chess.board;
+
+import dev.joao_guilherme.chess.enums.Color;
+import dev.joao_guilherme.chess.pieces.*;
+
+import java.util.Arrays;
+
+import static dev.joao_guilherme.chess.movements.Bitboards.*;
+
+/**
+ * Bitboard mirror of the board: one set per piece type and color, per-color occupancy and a
+ * square-indexed mailbox of piece codes. A piece code is {@code colorIndex * 6 + type}.
+ * <p>
+ * Material, the midgame and endgame piece-square sums (white's point of view) and the game phase are
+ * running totals kept by the same two methods, so reading the static evaluation costs nothing. So is
+ * the pawn key, the Zobrist hash of the pawns alone, which indexes cached pawn-structure evaluations.
+ * <p>
+ * Each side's attack map (the squares it attacks and by how many of its pieces) is kept up to date
+ * by {@link #put} and {@link #remove}. Only the piece itself and the sliders whose rays run through
+ * the changed square are recounted, so check and attack tests are plain lookups.
+ */
+public final class PieceBitboards {
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int EMPTY = -1;
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private final int[] mailbox = new int[64];
+    private final int[][] attackCounts = new int[2][64];
+    private final long[] attacked = new long[2];
+    private long occupied;
+    private int material;
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+    private long pawnKey;
+    private PieceListener listener;
+
+    public PieceBitboards() {
+        Arrays.fill(mailbox, EMPTY);
+    }
+
+    public PieceBitboards(PieceBitboards other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        System.arraycopy(other.attackCounts[0], 0, attackCounts[0], 0, 64);
+        System.arraycopy(other.attackCounts[1], 0, attackCounts[1], 0, 64);
+        System.arraycopy(other.attacked, 0, attacked, 0, attacked.length);
+        this.occupied = other.occupied;
+        this.material = other.material;
+        this.midgameScore = other.midgameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+        this.pawnKey = other.pawnKey;
+    }
+
+    public static int code(int colorIndex, int type) {
+        return colorIndex * 6 + type;
+    }
+
+    public static int code(Piece piece) {
+        return code(piece.getColor().index(), typeOf(piece));
+    }
+
+    public static int typeOf(Piece piece) {
+        return switch (piece) {
+            case Pawn _ -> PAWN;
+            case Knight _ -> KNIGHT;
+            case Bishop _ -> BISHOP;
+            case Rook _ -> ROOK;
+            case Queen _ -> QUEEN;
+            case King _ -> KING;
+        };
+    }
+
+    public static int typeOf(int code) {
+        return code % 6;
+    }
+
+    public static int colorOf(int code) {
+        return code / 6;
+    }
+
+    public void put(int square, int code) {
+        if (mailbox[square] != EMPTY) remove(square);
+        long bit = bit(square);
+        long blocked = slidersThrough(square);
+        updateAttacks(blocked, -1);
+        pieces[code] |= bit;
+        colors[colorOf(code)] |= bit;
+        occupied |= bit;
+        mailbox[square] = code;
+        material += PieceSquareTables.materialValue(code);
+        midgameScore += PieceSquareTables.midgameValue(code, square);
+        endgameScore += PieceSquareTables.endgameValue(code, square);
+        phase += PieceSquareTables.phaseWeight(code);
+        if (typeOf(code) == PAWN) pawnKey ^= Zobrist.piece(code, square);
+        if (listener != null) listener.pieceAdded(code, square);
+        updateAttacks(blocked, 1);
+        updateAttacks(code, square, 1);
+    }
+
+    public void remove(int square) {
+        int code = mailbox[square];
+        if (code == EMPTY) return;
+        long bit = bit(square);
+        updateAttacks(code, square, -1);
+        long unblocked = slidersThrough(square);
+        updateAttacks(unblocked, -1);
+        pieces[code] &= ~bit;
+        colors[colorOf(code)] &= ~bit;
+        occupied &= ~bit;
+        mailbox[square] = EMPTY;
+        material -= PieceSquareTables.materialValue(code);
+        midgameScore -= PieceSquareTables.midgameValue(code, square);
+        endgameScore -= PieceSquareTables.endgameValue(code, square);
+        phase -= PieceSquareTables.phaseWeight(code);
+        if (typeOf(code) == PAWN) pawnKey ^= Zobrist.piece(code, square);
+        if (listener != null) listener.pieceRemoved(code, square);
+        updateAttacks(unblocked, 1);
+    }
+
+    /**
+     * Sliders of either color whose attacks stop at or pass through {@code square}.
+     */
+    private long slidersThrough(int square) {
+        long diagonalSliders = pieces[code(0, BISHOP)] | pieces[code(1, BISHOP)] | pieces[code(0, QUEEN)] | pieces[code(1, QUEEN)];
+        long straightSliders = pieces[code(0, ROOK)] | pieces[code(1, ROOK)] | pieces[code(0, QUEEN)] | pieces[code(1, QUEEN)];
+        return (bishopAttacks(square, occupied) & diagonalSliders) | (rookAttacks(square, occupied) & straightSliders);
+    }
+
+    private void updateAttacks(long squares, int delta) {
+        for (; squares != 0; squares &= squares - 1) {
+            int square = Long.numberOfTrailingZeros(squares);
+            updateAttacks(mailbox[square], square, delta);
+        }
+    }
+
+    private void updateAttacks(int code, int square, int delta) {
+        int side = colorOf(code);
+        int[] counts = attackCounts[side];
+        for (long targets = attacks(code, square); targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            counts[target] += delta;
+            if (counts[target] == 0) attacked[side] &= ~bit(target);
+            else attacked[side] |= bit(target);
+        }
+    }
+
+    /**
+     * Registers the single listener notified of placement changes, or removes it with {@code null}.
+     * Copies made with the copy constructor start without one.
+     */
+    public void setListener(PieceListener listener) {
+        this.listener = listener;
+    }
+
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    public long pieces(int code) {
+        return pieces[code];
+    }
+
+    public long pieces(int colorIndex, int type) {
+        return pieces[code(colorIndex, type)];
+    }
+
+    public long occupancy(int colorIndex) {
+        return colors[colorIndex];
+    }
+
+    public long occupancy(Color color) {
+        return colors[color.index()];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public int material() {
+        return material;
+    }
+
+    /**
+     * Material plus piece-square values with the midgame tables.
+     */
+    public int midgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * Material plus piece-square values with the endgame tables.
+     */
+    public int endgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Remaining non-pawn material by phase weight, {@link PieceSquareTables#MAX_PHASE} at the start.
+     */
+    public int phase() {
+        return phase;
+    }
+
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    public int kingSquare(int colorIndex) {
+        return Long.numberOfTrailingZeros(pieces[code(colorIndex, KING)]);
+    }
+
+    /**
+     * Every piece of either color attacking {@code square} given the supplied occupancy.
+     */
+    public long attackersTo(int square, long occupied) {
+        long diagonalSliders = pieces[code(0, BISHOP)] | pieces[code(1, BISHOP)] | pieces[code(0, QUEEN)] | pieces[code(1, QUEEN)];
+        long straightSliders = pieces[code(0, ROOK)] | pieces[code(1, ROOK)] | pieces[code(0, QUEEN)] | pieces[code(1, QUEEN)];
+        return (PAWN_ATTACKS[1][square] & pieces[code(0, PAWN)])
+                | (PAWN_ATTACKS[0][square] & pieces[code(1, PAWN)])
+                | (KNIGHT_ATTACKS[square] & (pieces[code(0, KNIGHT)] | pieces[code(1, KNIGHT)]))
+                | (KING_ATTACKS[square] & (pieces[code(0, KING)] | pieces[code(1, KING)]))
+                | (bishopAttacks(square, occupied) & diagonalSliders)
+                | (rookAttacks(square, occupied) & straightSliders);
+    }
+
+    public boolean isAttacked(int square, int them) {
+        return (attacked[them] & bit(square)) != 0;
+    }
+
+    /**
+     * Every square attacked by at least one piece of {@code colorIndex}.
+     */
+    public long attacked(int colorIndex) {
+        return attacked[colorIndex];
+    }
+
+    /**
+     * Number of pieces of {@code colorIndex} attacking {@code square}.
+     */
+    public int attackCount(int square, int colorIndex) {
+        return attackCounts[colorIndex][square];
+    }
+
+    /**
+     * Squares reached by the piece {@code code} standing on {@code square}; pawns report captures only.
+     */
+    public long attacks(int code, int square) {
+        return switch (typeOf(code)) {
+            case PAWN -> PAWN_ATTACKS[colorOf(code)][square];
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case BISHOP -> bishopAttacks(square, occupied);
+            case ROOK -> rookAttacks(square, occupied);
+            case QUEEN -> queenAttacks(square, occupied);
+            default -> KING_ATTACKS[square];
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package dev.joao_guilherme.chess.board;
+
+/**
+ * Told about every piece placed on or taken off {@link PieceBitboards}, in the order it happens, so
+ * state derived from the placement can follow moves and their undo incrementally.
+ */
+public interface PieceListener {
+
+    void pieceAdded(int code, int square);
+
+    void pieceRemoved(int code, int square);
+}
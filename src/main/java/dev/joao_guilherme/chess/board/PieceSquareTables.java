@@ -0,0 +1,133 @@
+package dev.joao_guilherme.chess.board;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+
+/**
+ * Material values, piece-square tables and game phase weights of the hand-written evaluation. They
+ * live beside {@link PieceBitboards}, which keeps running sums of them as pieces move; the engine
+ * only reads those sums.
+ */
+public final class PieceSquareTables {
+
+    private static final int[] MATERIAL = {100, 300, 300, 500, 900, 0};
+
+    /**
+     * Game phase weight per piece type; the full starting material adds up to {@link #MAX_PHASE}, a
+     * board with pawns and kings only to zero.
+     */
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+    public static final int MAX_PHASE = 24;
+
+    private static final int[] PAWN_PST = {
+            0,  0,  0,  0,  0,  0,  0,  0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5,  5, 10, 25, 25, 10,  5,  5,
+            0,  0,  0, 20, 20,  0,  0,  0,
+            5, -5,-10,  0,  0,-10, -5,  5,
+            5, 10, 10,-20,-20, 10, 10,  5,
+            0,  0,  0,  0,  0,  0,  0,  0
+    };
+    private static final int[] KNIGHT_PST = {
+            -50,-40,-30,-30,-30,-30,-40,-50,
+            -40,-20,  0,  0,  0,  0,-20,-40,
+            -30,  0, 10, 15, 15, 10,  0,-30,
+            -30,  5, 15, 20, 20, 15,  5,-30,
+            -30,  0, 15, 20, 20, 15,  0,-30,
+            -30,  5, 10, 15, 15, 10,  5,-30,
+            -40,-20,  0,  5,  5,  0,-20,-40,
+            -50,-40,-30,-30,-30,-30,-40,-50
+    };
+    private static final int[] BISHOP_PST = {
+            -20,-10,-10,-10,-10,-10,-10,-20,
+            -10,  0,  0,  0,  0,  0,  0,-10,
+            -10,  0,  5, 10, 10,  5,  0,-10,
+            -10,  5,  5, 10, 10,  5,  5,-10,
+            -10,  0, 10, 10, 10, 10,  0,-10,
+            -10, 10, 10, 10, 10, 10, 10,-10,
+            -10,  5,  0,  0,  0,  0,  5,-10,
+            -20,-10,-10,-10,-10,-10,-10,-20
+    };
+    private static final int[] ROOK_PST = {
+            0,  0,  0,  0,  0,  0,  0,  0,
+            5, 10, 10, 10, 10, 10, 10,  5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            0,  0,  0,  5,  5,  0,  0,  0
+    };
+    private static final int[] QUEEN_PST = {
+            -20,-10,-10, -5, -5,-10,-10,-20,
+            -10,  0,  0,  0,  0,  0,  0,-10,
+            -10,  0,  5,  5,  5,  5,  0,-10,
+            -5,  0,  5,  5,  5,  5,  0, -5,
+            0,  0,  5,  5,  5,  5,  0, -5,
+            -10,  5,  5,  5,  5,  5,  0,-10,
+            -10,  0,  5,  0,  0,  0,  0,-10,
+            -20,-10,-10, -5, -5,-10,-10,-20
+    };
+    private static final int[] KING_MID_PST = {
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -20,-30,-30,-40,-40,-30,-30,-20,
+            -10,-20,-20,-20,-20,-20,-20,-10,
+            20, 20,  0,  0,  0,  0, 20, 20,
+            20, 30, 10,  0,  0, 10, 30, 20
+    };
+    private static final int[] KING_END_PST = {
+            -50,-40,-30,-20,-20,-30,-40,-50,
+            -30,-20,-10,  0,  0,-10,-20,-30,
+            -30,-10, 20, 30, 30, 20,-10,-30,
+            -30,-10, 30, 40, 40, 30,-10,-30,
+            -30,-10, 30, 40, 40, 30,-10,-30,
+            -30,-10, 20, 30, 30, 20,-10,-30,
+            -30,-30,  0,  0,  0,  0,-30,-30,
+            -50,-30,-30,-30,-30,-30,-30,-50
+    };
+
+    /**
+     * Material and piece-square values by {@code [pieceCode][square]}, signed from white's point of
+     * view, for the midgame and the endgame. The board keeps running sums of both as pieces move.
+     */
+    private static final int[][] MIDGAME_VALUES = new int[12][64];
+    private static final int[][] ENDGAME_VALUES = new int[12][64];
+
+    static {
+        int[][] midgame = {PAWN_PST, KNIGHT_PST, BISHOP_PST, ROOK_PST, QUEEN_PST, KING_MID_PST};
+        int[][] endgame = {PAWN_PST, KNIGHT_PST, BISHOP_PST, ROOK_PST, QUEEN_PST, KING_END_PST};
+        for (int color = 0; color < 2; color++) {
+            int sign = color == 0 ? 1 : -1;
+            for (int type = PAWN; type <= KING; type++) {
+                for (int square = 0; square < 64; square++) {
+                    int tableIndex = color == 0 ? flip(square) : square;
+                    MIDGAME_VALUES[code(color, type)][square] = sign * (MATERIAL[type] + midgame[type][tableIndex]);
+                    ENDGAME_VALUES[code(color, type)][square] = sign * (MATERIAL[type] + endgame[type][tableIndex]);
+                }
+            }
+        }
+    }
+
+    public static int midgameValue(int code, int square) {
+        return MIDGAME_VALUES[code][square];
+    }
+
+    public static int endgameValue(int code, int square) {
+        return ENDGAME_VALUES[code][square];
+    }
+
+    public static int materialValue(int code) {
+        return (colorOf(code) == 0 ? 1 : -1) * MATERIAL[typeOf(code)];
+    }
+
+    public static int phaseWeight(int code) {
+        return PHASE_WEIGHTS[typeOf(code)];
+    }
+
+    private static int flip(int index) {
+        return index ^ 56;
+    }
+}
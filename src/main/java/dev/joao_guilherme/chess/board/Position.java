@@ -81,10 +81,19 @@ public final class Position {
     public static final Position H8 = of('h', 8);
     private final char file;
     private final int rank;
+    private final int index;
 
     private Position(int file, int rank) {
         this.file = (char) ('a' + file);
         this.rank = rank;
+        this.index = (rank - 1) * 8 + file;
+    }
+
+    public static Position of(int index) {
+        if (index < 0 || index > 63) {
+            throw new IllegalArgumentException("Position out of bounds: " + index);
+        }
+        return CACHE[index];
     }
 
     public static Position of(int fileIndex, int rank) {
@@ -115,6 +124,10 @@ public final class Position {
         return file - 'a';
     }
 
+    public int index() {
+        return index;
+    }
+
     @Override
     public String toString() {
         return Character.toString(file).toLowerCase() + rank;
@@ -1,32 +1,151 @@
 package dev.joao_guilherme.chess.board;
 
-import dev.joao_guilherme.chess.engine.Move;
+import dev.joao_guilherme.chess.movements.Moves;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * Fixed-size transposition table packed into a {@code long[]}.
+ * <p>
+ * Entries are grouped in buckets of four two-long slots (64 bytes, one cache line). Each slot stores
+ * {@code key ^ data} followed by {@code data}, so a probe only accepts a slot whose halves still XOR
+ * back to the probed key: a torn write from a concurrent store is detected and reads as a miss,
+ * which lets any number of search threads share the table without locking.
+ * <p>
+ * Data layout: bits 0-15 best move, 16-47 score (signed centipawns), 48-55 depth, 56-57 bound (flag + 1, 0 = empty),
+ * 58-63 the search generation that wrote the entry.
+ */
 public class TranspositionTable {
 
     public static final int FLAG_EXACT = 0;
     public static final int FLAG_LOWERBOUND = 1; // Alpha (Falhou baixo)
     public static final int FLAG_UPPERBOUND = 2; // Beta (Falhou alto/Corte)
 
-    public record TTEntry(long key, float score, int depth, int flag, Move bestMove) {}
+    public static final long NO_ENTRY = 0;
 
-    private final Map<Long, TTEntry> table = HashMap.newHashMap(100000);
+    private static final int BUCKET_SIZE = 4;
+    private static final int BUCKET_LONGS = BUCKET_SIZE * 2;
+    private static final int BYTES_PER_BUCKET = BUCKET_LONGS * Long.BYTES;
+    private static final int GENERATION_MASK = 0x3F;
+    private static final int AGE_WEIGHT = 8;
+    private static final long MAX_BUCKETS = 1L << 27;
 
-    public void store(long key, float score, int depth, int flag, Move bestMove) {
-        TTEntry existing = table.get(key);
-        if (existing == null || depth >= existing.depth()) {
-            table.put(key, new TTEntry(key, score, depth, flag, bestMove));
+    private final long[] slots;
+    private final int bucketMask;
+    private volatile int generation;
+
+    public TranspositionTable(int sizeInMb) {
+        long buckets = Long.highestOneBit(Math.max(1L, (long) sizeInMb * 1024 * 1024 / BYTES_PER_BUCKET));
+        buckets = Math.min(buckets, MAX_BUCKETS);
+        this.slots = new long[(int) buckets * BUCKET_LONGS];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Starts a new search generation so entries from earlier searches become preferred victims.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public void store(long key, int score, int depth, int flag, int bestMove) {
+        int base = bucketIndex(key);
+        int currentGeneration = generation;
+        int victim = base;
+        int victimWorth = Integer.MAX_VALUE;
+
+        for (int slot = base; slot < base + BUCKET_LONGS; slot += 2) {
+            long data = slots[slot + 1];
+            if (bound(data) == 0) {
+                if (victimWorth > Integer.MIN_VALUE) {
+                    victim = slot;
+                    victimWorth = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((slots[slot] ^ data) == key) {
+                boolean sameSearch = generation(data) == currentGeneration;
+                if (sameSearch && depth < depth(data) && flag != FLAG_EXACT) return;
+                if (bestMove == Moves.NONE) bestMove = move(data);
+                victim = slot;
+                break;
+            }
+            int worth = depth(data) - AGE_WEIGHT * ((currentGeneration - generation(data)) & GENERATION_MASK);
+            if (worth < victimWorth) {
+                victim = slot;
+                victimWorth = worth;
+            }
         }
+
+        long data = pack(score, depth, flag, bestMove, currentGeneration);
+        slots[victim + 1] = data;
+        slots[victim] = key ^ data;
     }
 
-    public TTEntry probe(long key) {
-        return table.get(key);
+    /**
+     * Returns the packed entry for {@code key}, or {@link #NO_ENTRY} on a miss. Read the fields with
+     * {@link #score(long)}, {@link #depth(long)}, {@link #flag(long)} and {@link #move(long)}.
+     */
+    public long probe(long key) {
+        int base = bucketIndex(key);
+        for (int slot = base; slot < base + BUCKET_LONGS; slot += 2) {
+            long data = slots[slot + 1];
+            if (bound(data) != 0 && (slots[slot] ^ data) == key) return data;
+        }
+        return NO_ENTRY;
     }
 
     public void clear() {
-        table.clear();
+        Arrays.fill(slots, 0);
+        generation = 0;
+    }
+
+    /**
+     * Permille of sampled slots written during the current search.
+     */
+    public int hashFull() {
+        int sampled = Math.min(1000, slots.length / 2);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long data = slots[i * 2 + 1];
+            if (bound(data) != 0 && generation(data) == generation) used++;
+        }
+        return sampled == 0 ? 0 : used * 1000 / sampled;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    public static int flag(long entry) {
+        return bound(entry) - 1;
+    }
+
+    public static int move(long entry) {
+        return (int) entry & 0xFFFF;
+    }
+
+    private static int bound(long entry) {
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 58) & GENERATION_MASK;
+    }
+
+    private static long pack(int score, int depth, int flag, int bestMove, int generation) {
+        return (bestMove & 0xFFFFL)
+                | ((score & 0xFFFFFFFFL) << 16)
+                | ((long) Math.clamp(depth, 0, 0xFF) << 48)
+                | ((long) (flag + 1) << 56)
+                | ((long) generation << 58);
+    }
+
+    private int bucketIndex(long key) {
+        return ((int) key & bucketMask) * BUCKET_LONGS;
     }
 }
@@ -1,59 +1,92 @@
 package dev.joao_guilherme.chess.board;
 
 import dev.joao_guilherme.chess.enums.Color;
-import dev.joao_guilherme.chess.pieces.*;
 
 import java.security.SecureRandom;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
 
-public class Zobrist {
+import static dev.joao_guilherme.chess.movements.Bitboards.PAWN_ATTACKS;
 
-    private static final long[][][] PIECES = new long[2][6][64];
-    private static final long[] BLACK_TO_MOVE = new long[1];
+public class Zobrist {
 
-    private static final Map<Class<? extends Piece>, Integer> PIECE_INDEX = new HashMap<>();
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
 
     static {
         SecureRandom random = new SecureRandom();
 
-        PIECE_INDEX.put(Pawn.class, 0);
-        PIECE_INDEX.put(Knight.class, 1);
-        PIECE_INDEX.put(Bishop.class, 2);
-        PIECE_INDEX.put(Rook.class, 3);
-        PIECE_INDEX.put(Queen.class, 4);
-        PIECE_INDEX.put(King.class, 5);
-
-        for (int color = 0; color < 2; color++) {
-            for (int piece = 0; piece < 6; piece++) {
-                for (int sq = 0; sq < 64; sq++) {
-                    PIECES[color][piece][sq] = random.nextLong();
-                }
+        for (int code = 0; code < 12; code++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECES[code][sq] = random.nextLong();
             }
         }
-        BLACK_TO_MOVE[0] = random.nextLong();
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
     }
 
-    private static int getPieceIndex(Piece piece) {
-        return PIECE_INDEX.get(Objects.requireNonNull(piece).getClass());
+    public static long piece(int code, int square) {
+        return PIECES[code][square];
     }
 
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long sideToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * The en passant file only takes part in the key when a pawn could actually capture there,
+     * so that a double push no pawn can answer does not split otherwise identical positions.
+     */
+    public static long enPassant(PieceBitboards bitboards, Position enPassantSquare) {
+        if (enPassantSquare == null) return 0;
+        int capturer = enPassantSquare.rank() == 6 ? Color.WHITE.index() : Color.BLACK.index();
+        long capturingPawns = PAWN_ATTACKS[capturer ^ 1][enPassantSquare.index()] & bitboards.pieces(capturer, PieceBitboards.PAWN);
+        return capturingPawns != 0 ? EN_PASSANT_FILE[enPassantSquare.getColumn()] : 0;
+    }
+
+    /**
+     * Hash of the pawns alone, the value {@link PieceBitboards#pawnKey()} maintains incrementally.
+     */
+    public static long computePawnHash(PieceBitboards bitboards) {
+        long hash = 0;
+        for (int color = 0; color < 2; color++) {
+            int code = PieceBitboards.code(color, PieceBitboards.PAWN);
+            for (long pawns = bitboards.pieces(code); pawns != 0; pawns &= pawns - 1) {
+                hash ^= PIECES[code][Long.numberOfTrailingZeros(pawns)];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Rebuilds the key from scratch. {@link Board} maintains the same value incrementally, so this is
+     * only needed to seed a board or to verify the running key.
+     */
     public static long computeHash(Board board) {
         long hash = 0;
         if (board == null) return hash;
-        for (Piece piece : board.getPieces()) {
-            int color = piece.getColor() == Color.WHITE ? 0 : 1;
-            int type = getPieceIndex(piece);
-            int square = (piece.getPosition().getRow() - 1) * 8 + piece.getPosition().getColumn();
-
-            hash ^= PIECES[color][type][square];
+        PieceBitboards bitboards = board.getBitboards();
+        for (int sq = 0; sq < 64; sq++) {
+            int code = bitboards.pieceAt(sq);
+            if (code != PieceBitboards.EMPTY) hash ^= PIECES[code][sq];
         }
 
+        hash ^= CASTLING[board.getCastlingRights()];
+        hash ^= enPassant(bitboards, board.getEnPassantAvailablePosition());
+
         if (board.getTurn() == Color.BLACK) {
-            hash ^= BLACK_TO_MOVE[0];
+            hash ^= BLACK_TO_MOVE;
         }
 
         return hash;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,272 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.PieceBitboards;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+import static dev.joao_guilherme.chess.movements.Bitboards.file;
+import static dev.joao_guilherme.chess.movements.Bitboards.rank;
+
+/**
+ * Exact results of one endgame, such as KRvK or KPvKP, for every placement of its pieces.
+ * <p>
+ * A position is indexed by the side to move, the white king, the black king and the other pieces
+ * in table order: white's by falling value, then black's. Mirroring the board left to right never
+ * changes a result without castling rights, so the white king is always brought onto files a-d,
+ * halving the table. Tables only exist with white holding the stronger material; {@link Bitbases}
+ * swaps the colors of the reversed endgames before looking them up.
+ * <p>
+ * An entry packs the result for the side to move in its low two bits and the distance to mate in
+ * plies above them. On disk the results are bit-packed four to a byte in a {@code .wdl} file and the
+ * distances, capped at 255, take one byte each in an optional {@code .dtm} file. Both are
+ * memory-mapped, never copied onto the heap.
+ */
+public final class Bitbase {
+
+    public static final int UNKNOWN = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int DRAW = 3;
+
+    static final String WDL_EXTENSION = ".wdl";
+    static final String DTM_EXTENSION = ".dtm";
+
+    /**
+     * One more than the most pieces of one kind a table can hold besides the kings.
+     */
+    static final int MATERIAL_BASE = Bitbases.MAX_PIECES - 1;
+    static final int MATERIAL_KEYS;
+    private static final int[] MATERIAL_DIGITS = new int[2 * KING];
+
+    static {
+        int digit = 1;
+        for (int i = 0; i < MATERIAL_DIGITS.length; i++) {
+            MATERIAL_DIGITS[i] = digit;
+            digit *= MATERIAL_BASE;
+        }
+        MATERIAL_KEYS = digit;
+    }
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+    // File codes of the results; illegal positions are written as draws.
+    private static final int[] FILE_CODES = {0, 1, 2, 0};
+    private static final int[] FILE_RESULTS = {DRAW, WIN, LOSS, DRAW};
+
+    final String name;
+    final int[] codes;
+    final int size;
+    private final short[] entries;
+    private final MappedByteBuffer wdl;
+    private final MappedByteBuffer dtm;
+
+    Bitbase(int[] codes, short[] entries) {
+        this.name = name(codes);
+        this.codes = codes;
+        this.size = size(codes.length);
+        this.entries = entries;
+        this.wdl = null;
+        this.dtm = null;
+    }
+
+    private Bitbase(int[] codes, MappedByteBuffer wdl, MappedByteBuffer dtm) {
+        this.name = name(codes);
+        this.codes = codes;
+        this.size = size(codes.length);
+        this.entries = null;
+        this.wdl = wdl;
+        this.dtm = dtm;
+    }
+
+    /**
+     * The table for {@code name} in {@code directory}, or null when its file is missing.
+     */
+    static Bitbase open(Path directory, String name) throws IOException {
+        return open(directory, directory, name);
+    }
+
+    /**
+     * The table whose results are in {@code directory} and whose distances, if any, are in
+     * {@code distanceDirectory}.
+     */
+    static Bitbase open(Path directory, Path distanceDirectory, String name) throws IOException {
+        Path wdlFile = directory.resolve(name + WDL_EXTENSION);
+        if (!Files.isRegularFile(wdlFile)) return null;
+        int[] codes = parse(name);
+        MappedByteBuffer wdl = map(wdlFile);
+        if (wdl.capacity() != size(codes.length) / 4) throw new IOException("Corrupt bitbase: " + wdlFile);
+        Path dtmFile = distanceDirectory.resolve(name + DTM_EXTENSION);
+        MappedByteBuffer dtm = Files.isRegularFile(dtmFile) ? map(dtmFile) : null;
+        if (dtm != null && dtm.capacity() != size(codes.length)) throw new IOException("Corrupt bitbase: " + dtmFile);
+        return new Bitbase(codes, wdl, dtm);
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Writes the results to {@code directory} and the distances to {@code distanceDirectory}, or no
+     * distances when it is null.
+     */
+    void write(Path directory, Path distanceDirectory) throws IOException {
+        Files.createDirectories(directory);
+        byte[] packed = new byte[size / 4];
+        for (int i = 0; i < size; i++) {
+            packed[i >> 2] |= (byte) (FILE_CODES[entry(i) & 3] << ((i & 3) * 2));
+        }
+        Files.write(directory.resolve(name + WDL_EXTENSION), packed);
+        if (distanceDirectory == null) return;
+
+        Files.createDirectories(distanceDirectory);
+        byte[] distances = new byte[size];
+        for (int i = 0; i < size; i++) distances[i] = (byte) Math.min(plies(entry(i)), 255);
+        Files.write(distanceDirectory.resolve(name + DTM_EXTENSION), distances);
+    }
+
+    int entry(int index) {
+        if (entries != null) return entries[index];
+        int result = FILE_RESULTS[(wdl.get(index >> 2) >> ((index & 3) * 2)) & 3];
+        return dtm == null ? result : pack(result, dtm.get(index) & 0xFF);
+    }
+
+    boolean hasDistances() {
+        return entries != null || dtm != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    static int pack(int result, int plies) {
+        return result | plies << 2;
+    }
+
+    static int result(int entry) {
+        return entry & 3;
+    }
+
+    static int plies(int entry) {
+        return entry >>> 2;
+    }
+
+    static int size(int pieceCount) {
+        return 2 * 32 * 64 << (6 * pieceCount);
+    }
+
+    /**
+     * Index of a position whose pieces are listed in table order.
+     */
+    static int index(int sideToMove, int whiteKing, int blackKing, int[] squares, int count) {
+        int mirror = file(whiteKing) > 3 ? 7 : 0;
+        int king = whiteKing ^ mirror;
+        int index = sideToMove * 32 + rank(king) * 4 + file(king);
+        index = index * 64 + (blackKing ^ mirror);
+        for (int i = 0; i < count; i++) index = index * 64 + (squares[i] ^ mirror);
+        return index;
+    }
+
+    /**
+     * Table order: white pieces before black ones, each by falling value.
+     */
+    static boolean before(int code, int other) {
+        if (colorOf(code) != colorOf(other)) return colorOf(code) < colorOf(other);
+        return typeOf(code) > typeOf(other);
+    }
+
+    /**
+     * Whether white's pieces outrank black's: more of them, or the same number and the stronger set.
+     * Tables are only built for endgames where this holds.
+     */
+    static boolean whiteLeads(int[] codes, int count) {
+        int balance = 0;
+        for (int i = 0; i < count; i++) balance += colorOf(codes[i]) == 0 ? 1 : -1;
+        if (balance != 0) return balance > 0;
+        // With as many pieces each, the stronger set is the one with more of the first type, from
+        // the queen down, that the two sides do not hold equally often.
+        for (int type = QUEEN; type >= PAWN; type--) {
+            balance = 0;
+            for (int i = 0; i < count; i++) {
+                if (typeOf(codes[i]) == type) balance += colorOf(codes[i]) == 0 ? 1 : -1;
+            }
+            if (balance != 0) return balance > 0;
+        }
+        return true;
+    }
+
+    /**
+     * Index of the endgame of the given pieces, kings left out, in any order: the number of pieces
+     * of each color and type as the digits of a base {@link #MATERIAL_BASE} number.
+     */
+    static int materialKey(int[] codes, int count) {
+        int key = 0;
+        for (int i = 0; i < count; i++) key += MATERIAL_DIGITS[colorOf(codes[i]) * KING + typeOf(codes[i])];
+        return key;
+    }
+
+    /**
+     * Name of the endgame of pieces listed in table order, such as {@code KRPvK}.
+     */
+    static String name(int[] codes) {
+        return name(codes, codes.length);
+    }
+
+    static String name(int[] codes, int count) {
+        StringBuilder white = new StringBuilder("K");
+        StringBuilder black = new StringBuilder("K");
+        for (int i = 0; i < count; i++) {
+            (colorOf(codes[i]) == 0 ? white : black).append(PIECE_LETTERS.charAt(typeOf(codes[i])));
+        }
+        return white + "v" + black;
+    }
+
+    /**
+     * The pieces, in table order, of an endgame named like {@code KRPvK}.
+     */
+    static int[] parse(String name) {
+        String[] sides = name.toUpperCase().split("V");
+        if (sides.length != 2 || !sides[0].startsWith("K") || !sides[1].startsWith("K")) {
+            throw new IllegalArgumentException("Invalid endgame: " + name);
+        }
+        if (sides[0].length() + sides[1].length() > Bitbases.MAX_PIECES) {
+            throw new IllegalArgumentException("At most " + Bitbases.MAX_PIECES + " pieces: " + name);
+        }
+        int[] codes = new int[sides[0].length() + sides[1].length() - 2];
+        int count = 0;
+        for (int color = 0; color < 2; color++) {
+            for (char letter : sides[color].substring(1).toCharArray()) {
+                int type = PIECE_LETTERS.indexOf(letter);
+                if (type < 0 || type == KING) throw new IllegalArgumentException("Invalid endgame: " + name);
+                codes[count++] = PieceBitboards.code(color, type);
+            }
+        }
+        sort(codes, null, count);
+        if (!whiteLeads(codes, count)) throw new IllegalArgumentException("White must hold the stronger side: " + name);
+        return codes;
+    }
+
+    /**
+     * Sorts pieces into table order, moving their squares along when given.
+     */
+    static void sort(int[] codes, int[] squares, int count) {
+        for (int i = 1; i < count; i++) {
+            int code = codes[i];
+            int square = squares == null ? 0 : squares[i];
+            int j = i - 1;
+            while (j >= 0 && before(code, codes[j])) {
+                codes[j + 1] = codes[j];
+                if (squares != null) squares[j + 1] = squares[j];
+                j--;
+            }
+            codes[j + 1] = code;
+            if (squares != null) squares[j + 1] = square;
+        }
+    }
+}
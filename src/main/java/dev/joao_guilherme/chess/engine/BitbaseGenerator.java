@@ -0,0 +1,481 @@
+package dev.joao_guilherme.chess.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+import static dev.joao_guilherme.chess.movements.Bitboards.*;
+
+/**
+ * Builds {@link Bitbase}s by retrograde analysis. Results spread back from the mates one ply per
+ * pass: in pass {@code n} a position is won when some move reaches a position lost in fewer than
+ * {@code n} plies, and lost when every move reaches a position won in fewer than {@code n} plies, so
+ * each position settles in the pass equal to its distance to mate. Whatever never settles is a draw.
+ * <p>
+ * Captures and promotions leave the table for smaller or different endgames, which are built first
+ * or read from the output directory when their distances are there. Each pass is split over index
+ * ranges on a {@link ForkJoinPool}. A position only reads results settled in earlier passes, so the
+ * outcome does not depend on how the threads interleave.
+ * <p>
+ * Once written, a table is reopened memory-mapped from its files, so only the table being built is
+ * held on the heap. Dependents need exact distances, so when the output goes without them they are
+ * written to a temporary directory instead.
+ * <p>
+ * En passant is resolved while building: a double push that can be taken en passant is valued with
+ * the capture as an extra reply. The fifty-move rule is ignored.
+ */
+public class BitbaseGenerator {
+
+    private static final int CHUNK = 1 << 14;
+    private static final int[] PROMOTIONS = {QUEEN, ROOK, BISHOP, KNIGHT};
+
+    private final Bitbases tables;
+    private final ForkJoinPool pool;
+    // Longest mate of each endgame built or reused so far, by name.
+    private final Map<String, Integer> longestMates = new HashMap<>();
+    private Path temporaryDirectory;
+
+    public BitbaseGenerator(Bitbases tables, ForkJoinPool pool) {
+        this.tables = tables;
+        this.pool = pool;
+    }
+
+    /**
+     * Usage: {@code BitbaseGenerator <directory> [--no-dtm] [endgame...]}, with endgames named like
+     * {@code KRvK} or {@code KPvKP}. Without names every endgame of three and four pieces is built.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BitbaseGenerator <directory> [--no-dtm] [endgame...]");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        boolean withDistances = true;
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--no-dtm")) withDistances = false;
+            else names.add(args[i]);
+        }
+        if (names.isEmpty()) names = allEndgames();
+
+        BitbaseGenerator generator = new BitbaseGenerator(new Bitbases(directory), ForkJoinPool.commonPool());
+        for (String name : names) {
+            generator.generate(name, directory, withDistances);
+        }
+    }
+
+    /**
+     * Every endgame of three and four pieces, kings included.
+     */
+    public static List<String> allEndgames() {
+        List<String> names = new ArrayList<>();
+        int[] types = {QUEEN, ROOK, BISHOP, KNIGHT, PAWN};
+        for (int first = 0; first < types.length; first++) {
+            names.add(Bitbase.name(new int[]{code(0, types[first])}));
+            for (int second = first; second < types.length; second++) {
+                names.add(Bitbase.name(new int[]{code(0, types[first]), code(0, types[second])}));
+                names.add(Bitbase.name(new int[]{code(0, types[first]), code(1, types[second])}));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Builds the endgame and whatever it depends on, writing each table built to {@code directory}.
+     * A table already there with its distances is reused.
+     *
+     * @return the longest mate of the endgame in plies
+     */
+    public int generate(String name, Path directory, boolean withDistances) throws IOException {
+        int[] codes = Bitbase.parse(name);
+        Integer known = longestMates.get(Bitbase.name(codes));
+        if (known != null) return known;
+        Bitbase existing = tables.table(codes, codes.length);
+        if (existing != null && existing.hasDistances()) {
+            int maxPlies = maxPlies(existing);
+            longestMates.put(existing.name, maxPlies);
+            return maxPlies;
+        }
+
+        int dependencyPlies = 0;
+        for (String dependency : dependencies(codes)) {
+            dependencyPlies = Math.max(dependencyPlies, generate(dependency, directory, withDistances));
+        }
+
+        long start = System.nanoTime();
+        Bitbase table = build(codes, dependencyPlies);
+        int maxPlies = maxPlies(table);
+        Path distanceDirectory = withDistances ? directory : temporaryDirectory();
+        table.write(directory, distanceDirectory);
+        if (!withDistances) distanceDirectory.resolve(table.name + Bitbase.DTM_EXTENSION).toFile().deleteOnExit();
+        System.out.printf("%s: %d positions, longest mate %d plies, %d ms%n",
+                table.name, table.size, maxPlies, (System.nanoTime() - start) / 1_000_000);
+
+        tables.add(Bitbase.open(directory, distanceDirectory, table.name));
+        longestMates.put(table.name, maxPlies);
+        return maxPlies;
+    }
+
+    private Path temporaryDirectory() throws IOException {
+        if (temporaryDirectory == null) {
+            temporaryDirectory = Files.createTempDirectory("bitbases");
+            // Registered first so it is deleted last, once the files in it are gone.
+            temporaryDirectory.toFile().deleteOnExit();
+        }
+        return temporaryDirectory;
+    }
+
+    /**
+     * The endgames a capture or a promotion can lead to.
+     */
+    private static List<String> dependencies(int[] codes) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            int[] remaining = new int[codes.length - 1];
+            for (int j = 0, k = 0; j < codes.length; j++) {
+                if (j != i) remaining[k++] = codes[j];
+            }
+            addCanonical(names, remaining);
+            if (typeOf(codes[i]) != PAWN) continue;
+            for (int promotion : PROMOTIONS) {
+                int[] promoted = codes.clone();
+                promoted[i] = code(colorOf(codes[i]), promotion);
+                addCanonical(names, promoted);
+            }
+        }
+        return names;
+    }
+
+    private static void addCanonical(List<String> names, int[] codes) {
+        if (!Bitbase.whiteLeads(codes, codes.length)) {
+            for (int i = 0; i < codes.length; i++) codes[i] = code(colorOf(codes[i]) ^ 1, typeOf(codes[i]));
+        }
+        Bitbase.sort(codes, null, codes.length);
+        String name = Bitbase.name(codes);
+        if (!names.contains(name)) names.add(name);
+    }
+
+    private Bitbase build(int[] codes, int dependencyPlies) {
+        short[] entries = new short[Bitbase.size(codes.length)];
+        for (int pass = 0; ; pass++) {
+            LongAdder settled = new LongAdder();
+            pool.invoke(new Pass(codes, entries, pass, 0, entries.length, settled));
+            if (settled.sum() == 0 && pass > dependencyPlies) break;
+        }
+
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == Bitbase.UNKNOWN) entries[i] = Bitbase.DRAW;
+        }
+        return new Bitbase(codes, entries);
+    }
+
+    /**
+     * Longest distance to mate in the table. Only the generator needs it, to know how many passes
+     * the results of the endgames it depends on can take to spread.
+     */
+    private static int maxPlies(Bitbase table) {
+        int maxPlies = 0;
+        for (int i = 0; i < table.size; i++) {
+            int entry = table.entry(i);
+            if (Bitbase.result(entry) != Bitbase.DRAW) maxPlies = Math.max(maxPlies, Bitbase.plies(entry));
+        }
+        return maxPlies;
+    }
+
+    private final class Pass extends RecursiveAction {
+
+        private final int[] codes;
+        private final short[] entries;
+        private final int pass;
+        private final int from;
+        private final int to;
+        private final LongAdder settled;
+
+        Pass(int[] codes, short[] entries, int pass, int from, int to, LongAdder settled) {
+            this.codes = codes;
+            this.entries = entries;
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+            this.settled = settled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Pass(codes, entries, pass, from, middle, settled),
+                        new Pass(codes, entries, pass, middle, to, settled));
+                return;
+            }
+            Placement placement = new Placement(codes, entries);
+            int count = 0;
+            for (int index = from; index < to; index++) {
+                if (entries[index] != Bitbase.UNKNOWN) continue;
+                placement.decode(index);
+                int entry = pass == 0 && !placement.isValid() ? Bitbase.DRAW : placement.evaluate(pass);
+                if (entry != Bitbase.UNKNOWN) {
+                    entries[index] = (short) entry;
+                    count++;
+                }
+            }
+            settled.add(count);
+        }
+    }
+
+    /**
+     * One position of the table being built, with the move generation the analysis needs. Pieces
+     * keep their table slot; a captured piece has square -1.
+     */
+    private final class Placement {
+
+        private final int[] codes;
+        private final short[] entries;
+        private final int count;
+        private final int[] squares;
+        private final int[] kings = new int[2];
+        private int sideToMove;
+
+        private final int[] childCodes;
+        private final int[] childSquares;
+
+        Placement(int[] codes, short[] entries) {
+            this.codes = codes;
+            this.entries = entries;
+            this.count = codes.length;
+            this.squares = new int[count];
+            this.childCodes = new int[count];
+            this.childSquares = new int[count];
+        }
+
+        void decode(int index) {
+            for (int i = count - 1; i >= 0; i--) {
+                squares[i] = index & 63;
+                index >>>= 6;
+            }
+            kings[1] = index & 63;
+            index >>>= 6;
+            int whiteKing = index & 31;
+            kings[0] = (whiteKing >> 2) * 8 + (whiteKing & 3);
+            sideToMove = index >>> 5;
+        }
+
+        boolean isValid() {
+            long seen = bit(kings[0]) | bit(kings[1]);
+            if (kings[0] == kings[1] || (KING_ATTACKS[kings[0]] & bit(kings[1])) != 0) return false;
+            for (int i = 0; i < count; i++) {
+                if ((seen & bit(squares[i])) != 0) return false;
+                if (typeOf(codes[i]) == PAWN && (rank(squares[i]) == 0 || rank(squares[i]) == 7)) return false;
+                seen |= bit(squares[i]);
+            }
+            return !isAttacked(kings[sideToMove ^ 1], sideToMove);
+        }
+
+        /**
+         * The entry this position settles on in {@code pass}, or {@link Bitbase#UNKNOWN} if it does
+         * not settle yet.
+         */
+        int evaluate(int pass) {
+            int us = sideToMove;
+            long own = occupancy(us);
+            long occupied = own | occupancy(us ^ 1);
+            boolean anyMove = false;
+            boolean allWon = true;
+            int longestWin = 0;
+
+            for (long targets = KING_ATTACKS[kings[us]] & ~own; targets != 0; targets &= targets - 1) {
+                int child = child(-1, Long.numberOfTrailingZeros(targets), 0, pass);
+                if (child == -1) continue;
+                anyMove = true;
+                if (Bitbase.result(child) == Bitbase.LOSS) return Bitbase.pack(Bitbase.WIN, Bitbase.plies(child) + 1);
+                if (Bitbase.result(child) == Bitbase.WIN) longestWin = Math.max(longestWin, Bitbase.plies(child));
+                else allWon = false;
+            }
+
+            for (int i = 0; i < count; i++) {
+                int from = squares[i];
+                if (from < 0 || colorOf(codes[i]) != us) continue;
+                int type = typeOf(codes[i]);
+                long targets;
+                if (type == PAWN) {
+                    int forward = us == 0 ? 8 : -8;
+                    targets = PAWN_ATTACKS[us][from] & occupancy(us ^ 1);
+                    if ((occupied & bit(from + forward)) == 0) {
+                        targets |= bit(from + forward);
+                        int startRank = us == 0 ? 1 : 6;
+                        if (rank(from) == startRank && (occupied & bit(from + 2 * forward)) == 0) {
+                            targets |= bit(from + 2 * forward);
+                        }
+                    }
+                } else {
+                    targets = attacks(type, us, from, occupied) & ~own;
+                }
+
+                for (; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    boolean promotes = type == PAWN && (rank(to) == 0 || rank(to) == 7);
+                    for (int p = 0; p < (promotes ? PROMOTIONS.length : 1); p++) {
+                        int child = child(i, to, promotes ? PROMOTIONS[p] : 0, pass);
+                        if (child == -1) continue;
+                        anyMove = true;
+                        if (Bitbase.result(child) == Bitbase.LOSS) return Bitbase.pack(Bitbase.WIN, Bitbase.plies(child) + 1);
+                        if (Bitbase.result(child) == Bitbase.WIN) longestWin = Math.max(longestWin, Bitbase.plies(child));
+                        else allWon = false;
+                    }
+                }
+            }
+
+            if (!anyMove) {
+                return isAttacked(kings[us], us ^ 1) ? Bitbase.pack(Bitbase.LOSS, 0) : Bitbase.pack(Bitbase.DRAW, 0);
+            }
+            return allWon ? Bitbase.pack(Bitbase.LOSS, longestWin + 1) : Bitbase.UNKNOWN;
+        }
+
+        /**
+         * Plays the move of piece {@code mover} (-1 for the king) and returns the entry of the
+         * resulting position for the opponent, {@link Bitbase#UNKNOWN} when it is not settled before
+         * {@code pass}, or -1 when the move is illegal.
+         */
+        private int child(int mover, int to, int promotion, int pass) {
+            int us = sideToMove;
+            int from = mover < 0 ? kings[us] : squares[mover];
+            int captured = pieceOn(to);
+
+            if (mover < 0) kings[us] = to;
+            else squares[mover] = to;
+            if (captured >= 0) squares[captured] = -1;
+            sideToMove = us ^ 1;
+
+            int entry = -1;
+            if (!isAttacked(kings[us], us ^ 1)) {
+                if (captured < 0 && promotion == 0) {
+                    entry = settled(entries[Bitbase.index(sideToMove, kings[0], kings[1], squares, count)], pass);
+                    if (mover >= 0 && typeOf(codes[mover]) == PAWN && Math.abs(to - from) == 16) {
+                        entry = withEnPassant(entry, mover, (from + to) / 2, pass);
+                    }
+                } else {
+                    entry = settled(lookup(mover, promotion), pass);
+                }
+            }
+
+            sideToMove = us;
+            if (captured >= 0) squares[captured] = to;
+            if (mover < 0) kings[us] = from;
+            else squares[mover] = from;
+            return entry;
+        }
+
+        /**
+         * Folds the en passant replies to the double push of {@code pawn} into the opponent's entry
+         * {@code table}, the value of the same position without them.
+         */
+        private int withEnPassant(int table, int pawn, int target, int pass) {
+            int them = sideToMove;
+            int bestWin = Integer.MAX_VALUE;
+            boolean draw = false;
+            int longestLoss = -1;
+            for (int i = 0; i < count; i++) {
+                if (squares[i] < 0 || codes[i] != code(them, PAWN)) continue;
+                if ((PAWN_ATTACKS[them][squares[i]] & bit(target)) == 0) continue;
+
+                int from = squares[i];
+                int pushed = squares[pawn];
+                squares[i] = target;
+                squares[pawn] = -1;
+                sideToMove = them ^ 1;
+                int reply = isAttacked(kings[them], them ^ 1) ? -1 : lookup(-1, 0);
+                sideToMove = them;
+                squares[pawn] = pushed;
+                squares[i] = from;
+                if (reply == -1) continue;
+
+                // The reply is seen from the pusher; turn it around for the capturer.
+                int plies = Bitbase.plies(reply) + 1;
+                if (Bitbase.result(reply) == Bitbase.LOSS) bestWin = Math.min(bestWin, plies);
+                else if (Bitbase.result(reply) == Bitbase.WIN) longestLoss = Math.max(longestLoss, plies);
+                else draw = true;
+            }
+            if (bestWin == Integer.MAX_VALUE && !draw && longestLoss < 0) return table;
+
+            if (bestWin < pass) {
+                if (table != Bitbase.UNKNOWN && Bitbase.result(table) == Bitbase.WIN) bestWin = Math.min(bestWin, Bitbase.plies(table));
+                return Bitbase.pack(Bitbase.WIN, bestWin);
+            }
+            if (table == Bitbase.UNKNOWN || bestWin != Integer.MAX_VALUE && Bitbase.result(table) != Bitbase.WIN) {
+                return Bitbase.UNKNOWN;
+            }
+            if (Bitbase.result(table) != Bitbase.LOSS || draw) {
+                return Bitbase.result(table) == Bitbase.LOSS ? Bitbase.pack(Bitbase.DRAW, 0) : table;
+            }
+            int plies = Math.max(Bitbase.plies(table), longestLoss);
+            return plies < pass ? Bitbase.pack(Bitbase.LOSS, plies) : Bitbase.UNKNOWN;
+        }
+
+        /**
+         * Entry of the current position in another endgame; {@code mover} has just been promoted
+         * to {@code promotion} when that is not 0.
+         */
+        private int lookup(int mover, int promotion) {
+            int remaining = 0;
+            for (int i = 0; i < count; i++) {
+                if (squares[i] < 0) continue;
+                childCodes[remaining] = i == mover && promotion != 0 ? code(colorOf(codes[i]), promotion) : codes[i];
+                childSquares[remaining++] = squares[i];
+            }
+            int entry = tables.lookup(sideToMove, kings[0], kings[1], childCodes, childSquares, remaining, true);
+            if (entry == Bitbase.UNKNOWN) {
+                throw new IllegalStateException("Missing bitbase " + Bitbase.name(Arrays.copyOf(childCodes, remaining)));
+            }
+            return entry;
+        }
+
+        private int settled(int entry, int pass) {
+            return entry != Bitbase.UNKNOWN && Bitbase.plies(entry) < pass ? entry : Bitbase.UNKNOWN;
+        }
+
+        private int pieceOn(int square) {
+            for (int i = 0; i < count; i++) {
+                if (squares[i] == square) return i;
+            }
+            return -1;
+        }
+
+        private long occupancy(int color) {
+            long occupied = bit(kings[color]);
+            for (int i = 0; i < count; i++) {
+                if (squares[i] >= 0 && colorOf(codes[i]) == color) occupied |= bit(squares[i]);
+            }
+            return occupied;
+        }
+
+        private boolean isAttacked(int square, int by) {
+            if ((KING_ATTACKS[kings[by]] & bit(square)) != 0) return true;
+            long occupied = occupancy(0) | occupancy(1);
+            for (int i = 0; i < count; i++) {
+                if (squares[i] < 0 || colorOf(codes[i]) != by) continue;
+                if ((attacks(typeOf(codes[i]), by, squares[i], occupied) & bit(square)) != 0) return true;
+            }
+            return false;
+        }
+    }
+
+    private static long attacks(int type, int color, int square, long occupied) {
+        return switch (type) {
+            case PAWN -> PAWN_ATTACKS[color][square];
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case BISHOP -> bishopAttacks(square, occupied);
+            case ROOK -> rookAttacks(square, occupied);
+            case QUEEN -> queenAttacks(square, occupied);
+            default -> KING_ATTACKS[square];
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.board.Position;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Moves;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+import static dev.joao_guilherme.chess.movements.Bitboards.PAWN_ATTACKS;
+import static dev.joao_guilherme.chess.movements.Bitboards.bit;
+
+/**
+ * The endgame {@link Bitbase}s of a directory, all opened up front. Probes cover positions with at
+ * most {@link #MAX_PIECES} pieces and no castling rights; positions where an en passant capture is
+ * available are left to the search, since the tables do not record it.
+ * <p>
+ * Tables are found by {@link Bitbase#materialKey material key}, so a probe neither builds a name nor
+ * hashes one, and never touches the file system. A table that cannot be opened is reported and left
+ * out, as if it were missing.
+ */
+public class Bitbases {
+
+    public static final int MAX_PIECES = 4;
+
+    // Null where the endgame has no table.
+    private final Bitbase[] tables = new Bitbase[Bitbase.MATERIAL_KEYS];
+
+    public Bitbases(Path directory) {
+        if (directory == null || !Files.isDirectory(directory)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Bitbase.WDL_EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                open(directory, name.substring(0, name.length() - Bitbase.WDL_EXTENSION.length()));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void open(Path directory, String name) {
+        try {
+            Bitbase table = Bitbase.open(directory, name);
+            if (table != null) add(table);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+        }
+    }
+
+    void add(Bitbase table) {
+        tables[Bitbase.materialKey(table.codes, table.codes.length)] = table;
+    }
+
+    /**
+     * The table of the endgame with these pieces besides the kings, listed in table order.
+     */
+    Bitbase table(int[] codes, int count) {
+        return tables[Bitbase.materialKey(codes, count)];
+    }
+
+    /**
+     * {@link Bitbase#WIN}, {@link Bitbase#DRAW} or {@link Bitbase#LOSS} for the side to move, or
+     * {@link Bitbase#UNKNOWN} when the position is not covered.
+     */
+    public int probe(Board board) {
+        return probe(board, new int[MAX_PIECES - 2], new int[MAX_PIECES - 2]);
+    }
+
+    /**
+     * {@link #probe(Board)} without allocating: {@code codes} and {@code squares}, of at least
+     * {@code MAX_PIECES - 2} elements each, are scratch space owned by the caller.
+     */
+    public int probe(Board board, int[] codes, int[] squares) {
+        return Bitbase.result(probeEntry(board, codes, squares, false));
+    }
+
+    /**
+     * The exactly winning move, or the most stubborn one when lost, chosen by distance to mate.
+     * {@link Moves#NONE} for drawn or uncovered positions and for tables without distances, which
+     * the search handles instead.
+     */
+    public int bestMove(Board board) {
+        int[] codes = new int[MAX_PIECES - 2];
+        int[] squares = new int[MAX_PIECES - 2];
+        int result = Bitbase.result(probeEntry(board, codes, squares, true));
+        if (result != Bitbase.WIN && result != Bitbase.LOSS) return Moves.NONE;
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(board, board.getTurn().index(), moves);
+        int bestMove = Moves.NONE;
+        int bestPlies = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            int entry = probeEntry(board, codes, squares, true);
+            board.unmakeMove();
+            if (entry == Bitbase.UNKNOWN) return Moves.NONE;
+
+            // The child is seen from the opponent: a loss for them is a win for us.
+            int plies = Bitbase.plies(entry);
+            boolean better = result == Bitbase.WIN
+                    ? Bitbase.result(entry) == Bitbase.LOSS && (bestMove == Moves.NONE || plies < bestPlies)
+                    : Bitbase.result(entry) == Bitbase.WIN && (bestMove == Moves.NONE || plies > bestPlies);
+            if (better) {
+                bestMove = moves[i];
+                bestPlies = plies;
+            }
+        }
+        return bestMove;
+    }
+
+    private int probeEntry(Board board, int[] codes, int[] squares, boolean needsDistance) {
+        PieceBitboards bitboards = board.getBitboards();
+        long occupied = bitboards.occupied();
+        if (Long.bitCount(occupied) > MAX_PIECES || board.getCastlingRights() != 0) return Bitbase.UNKNOWN;
+        if (enPassantCapturePossible(board)) return Bitbase.UNKNOWN;
+
+        int count = 0;
+        int whiteKing = Long.numberOfTrailingZeros(bitboards.pieces(0, KING));
+        int blackKing = Long.numberOfTrailingZeros(bitboards.pieces(1, KING));
+        for (long pieces = occupied & ~bit(whiteKing) & ~bit(blackKing); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            codes[count] = bitboards.pieceAt(square);
+            squares[count++] = square;
+        }
+        return lookup(board.getTurn().index(), whiteKing, blackKing, codes, squares, count, needsDistance);
+    }
+
+    /**
+     * Entry of a position given piece by piece in any order and either color orientation, or
+     * {@link Bitbase#UNKNOWN} without a table for it, or without distances when they are needed.
+     * Reorders the arrays it is given.
+     */
+    int lookup(int sideToMove, int whiteKing, int blackKing, int[] codes, int[] squares, int count, boolean needsDistance) {
+        if (!Bitbase.whiteLeads(codes, count)) {
+            for (int i = 0; i < count; i++) {
+                codes[i] = code(colorOf(codes[i]) ^ 1, typeOf(codes[i]));
+                squares[i] ^= 56;
+            }
+            int king = whiteKing;
+            whiteKing = blackKing ^ 56;
+            blackKing = king ^ 56;
+            sideToMove ^= 1;
+        }
+        Bitbase.sort(codes, squares, count);
+
+        Bitbase table = table(codes, count);
+        if (table == null || needsDistance && !table.hasDistances()) return Bitbase.UNKNOWN;
+        return table.entry(Bitbase.index(sideToMove, whiteKing, blackKing, squares, count));
+    }
+
+    private static boolean enPassantCapturePossible(Board board) {
+        Position square = board.getEnPassantAvailablePosition();
+        if (square == null) return false;
+        int us = board.getTurn().index();
+        return (PAWN_ATTACKS[us ^ 1][square.index()] & board.getBitboards().pieces(us, PAWN)) != 0;
+    }
+}
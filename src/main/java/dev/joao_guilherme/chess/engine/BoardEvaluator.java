@@ -1,19 +1,96 @@
 package dev.joao_guilherme.chess.engine;
 
 import dev.joao_guilherme.chess.board.Board;
-import dev.joao_guilherme.chess.pieces.*;
+import dev.joao_guilherme.chess.board.PieceBitboards;
 
-
-import static dev.joao_guilherme.chess.engine.PositionEvaluator.evaluatePiecePosition;
+import static dev.joao_guilherme.chess.movements.Bitboards.KING_ATTACKS;
+import static dev.joao_guilherme.chess.movements.Bitboards.bit;
 
 public class BoardEvaluator {
 
-    public static float evaluate(Board board) {
-        float score = 0;
-        for (Piece piece : board.getPieces()) {
-            score += evaluatePiecePosition(board, piece);
-            score += piece.getValue() * 100;
+    private static final int KING_ZONE_ATTACK_PENALTY = 8;
+    private static final int SHIELD_PAWN_MIDGAME = 12;
+    private static final int FREE_PASSER_ENDGAME = 25;
+
+    /**
+     * Practical bound on what the terms after the cheap stage add or take away. When the cheap score
+     * is further than this outside the window the remaining terms are not expected to bring it back.
+     */
+    public static final int LAZY_MARGIN = 250;
+
+    /**
+     * Static evaluation in centipawns from white's point of view.
+     */
+    public static int evaluate(Board board) {
+        return evaluate(board, -Integer.MAX_VALUE, Integer.MAX_VALUE, new PawnTable(1));
+    }
+
+    /**
+     * Staged evaluation against a window given from white's point of view. The cheap stage is the
+     * tapered material and piece-square score read from the board's running totals plus the pawn
+     * structure from the pawn table; if it already lies more than {@link #LAZY_MARGIN} outside
+     * {@code [alpha, beta]} it is returned as is and the remaining terms are skipped.
+     */
+    public static int evaluate(Board board, int alpha, int beta, PawnTable pawnTable) {
+        return evaluate(board, alpha, beta, pawnTable, null);
+    }
+
+    /**
+     * As {@link #evaluate(Board, int, int, PawnTable)}, first consulting {@code evalCache} and storing
+     * every complete evaluation in it.
+     */
+    public static int evaluate(Board board, int alpha, int beta, PawnTable pawnTable, EvalCache evalCache) {
+        long key = board.getZobristKey();
+        if (evalCache != null) {
+            int cached = evalCache.probe(key);
+            if (cached != EvalCache.MISS) return cached;
+        }
+
+        PieceBitboards bitboards = board.getBitboards();
+        int slot = pawnTable.probe(bitboards);
+        int phase = bitboards.phase();
+        int score = PositionEvaluator.taper(bitboards.midgameScore() + pawnTable.midgame(slot),
+                bitboards.endgameScore() + pawnTable.endgame(slot), phase);
+        if (score + LAZY_MARGIN <= alpha || score - LAZY_MARGIN >= beta) return score;
+
+        int midgame = pawnShield(bitboards, 0) - pawnShield(bitboards, 1);
+        int endgame = freePassers(bitboards, pawnTable.passedPawns(slot));
+        score += PositionEvaluator.taper(midgame, endgame, phase) + kingSafety(board, 0) - kingSafety(board, 1);
+        if (evalCache != null) evalCache.store(key, score);
+        return score;
+    }
+
+    private static int pawnShield(PieceBitboards bitboards, int side) {
+        long shelter = PawnStructure.shield(side, bitboards.kingSquare(side)) & bitboards.pieces(side, PieceBitboards.PAWN);
+        return Long.bitCount(shelter) * SHIELD_PAWN_MIDGAME;
+    }
+
+    /**
+     * Passed pawns whose way to the promotion square is not blocked by any piece.
+     */
+    private static int freePassers(PieceBitboards bitboards, long passed) {
+        int score = 0;
+        for (; passed != 0; passed &= passed - 1) {
+            int square = Long.numberOfTrailingZeros(passed);
+            int color = PieceBitboards.colorOf(bitboards.pieceAt(square));
+            if ((PawnStructure.forwardFile(color, square) & bitboards.occupied()) == 0) {
+                score += color == 0 ? FREE_PASSER_ENDGAME : -FREE_PASSER_ENDGAME;
+            }
         }
         return score;
     }
+
+    /**
+     * Penalty for every enemy attack on the king and the squares around it, read from the attack
+     * counts the board keeps.
+     */
+    private static int kingSafety(Board board, int side) {
+        PieceBitboards bitboards = board.getBitboards();
+        int king = bitboards.kingSquare(side);
+        int attacks = 0;
+        for (long zone = KING_ATTACKS[king] | bit(king); zone != 0; zone &= zone - 1) {
+            attacks += bitboards.attackCount(Long.numberOfTrailingZeros(zone), side ^ 1);
+        }
+        return -attacks * KING_ZONE_ATTACK_PENALTY;
+    }
 }
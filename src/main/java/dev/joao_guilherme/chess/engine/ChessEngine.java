@@ -1,197 +1,261 @@
 package dev.joao_guilherme.chess.engine;
 
 import dev.joao_guilherme.chess.board.Board;
-import dev.joao_guilherme.chess.board.Position;
+import dev.joao_guilherme.chess.board.BoardSnapshot;
 import dev.joao_guilherme.chess.board.TranspositionTable;
-import dev.joao_guilherme.chess.board.Zobrist;
-import dev.joao_guilherme.chess.enums.Color;
-import dev.joao_guilherme.chess.pieces.*;
+import dev.joao_guilherme.chess.enums.Pruning;
+import dev.joao_guilherme.chess.movements.Moves;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Optional;
-
-import static dev.joao_guilherme.chess.movements.Movement.isCapturingMove;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 public class ChessEngine {
 
-    private static final int DEPTH = 4;
-    private static final int MAX_Q_DEPTH = 4;
-    private static final float MATE_SCORE = 1000000;
-    private static final Class<? extends Piece>[] PROMOTION_PIECES = new Class[]{Queen.class, Rook.class, Bishop.class, Knight.class};
-    private static final TranspositionTable TT = new TranspositionTable();
-
-    public static Move computeMove(Board board) {
-        return minimax(board, DEPTH, 0, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+    private static final int DEFAULT_HASH_SIZE_MB = 64;
+    private static final SearchLimits DEFAULT_LIMITS = SearchLimits.timeBudget(2000);
+    private static volatile TranspositionTable TT = new TranspositionTable(DEFAULT_HASH_SIZE_MB);
+    private static volatile int threads = 1;
+    private static final Set<Pruning> pruning = EnumSet.allOf(Pruning.class);
+    private static volatile NeuralNetwork network = loadDefaultNetwork();
+    private static volatile OpeningBook book = openDefaultBook();
+    private static volatile Bitbases bitbases = openDefaultBitbases();
+
+    public static int computeMove(Board board) {
+        return computeMove(board, DEFAULT_LIMITS);
     }
 
-    public static Move minimax(Board board, int depth, int ply, float alpha, float beta) {
-        long zobristKey = Zobrist.computeHash(board);
-        float alphaOriginal = alpha;
-
-        Optional<Move> cache = getCache(zobristKey, depth, alpha, beta);
-        if (cache.isPresent()) return cache.get();
+    public static int computeMove(Board board, SearchLimits limits) {
+        return computeMove(board.snapshot(), limits);
+    }
 
-        if (board.isCheckMate(Color.WHITE)) return new Move(null, null, -MATE_SCORE + ply, null);
-        if (board.isCheckMate(Color.BLACK)) return new Move(null, null, MATE_SCORE - ply, null);
-        if (board.isDraw()) return new Move(null, null, 0, null);
+    public static int computeMove(BoardSnapshot snapshot) {
+        return computeMove(snapshot, DEFAULT_LIMITS);
+    }
 
-        if (depth == 0) {
-            float score = quiescenceSearch(board, alpha, beta, 0);
-            return new Move(null, null, score, null);
+    /**
+     * Plays from the opening book while it knows the position, straight from the endgame bitbases
+     * once they cover it, and searches in between.
+     */
+    public static int computeMove(BoardSnapshot snapshot, SearchLimits limits) {
+        OpeningBook book = ChessEngine.book;
+        if (book != null) {
+            int move = book.probe(snapshot.toBoard());
+            if (move != Moves.NONE) return move;
         }
+        Bitbases bitbases = ChessEngine.bitbases;
+        if (bitbases != null) {
+            int move = bitbases.bestMove(snapshot.toBoard());
+            if (move != Moves.NONE) return move;
+        }
+        return search(snapshot, limits).bestMove();
+    }
 
-        boolean isMaximizing = Color.WHITE == board.getTurn();
-        Move bestMove = new Move(null, null, isMaximizing ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY, null);
-
-        List<Move> moves = generateAllMoves(board, false);
-
-        if (moves.isEmpty()) return new Move(null, null, 0, null);
-
-        for (Move moveObj : moves) {
-            if (board.movePiece(moveObj.piece().getPosition(), moveObj.to())) {
-
-                if (moveObj.promotion() != null) {
-                    board.promote(moveObj.piece().getPosition(), moveObj.to(), moveObj.promotion());
-                }
-
-                Move result = minimax(board, depth - 1, ply + 1, alpha, beta);
+    public static SearchResult search(Board board, SearchLimits limits) {
+        return search(board.snapshot(), limits);
+    }
 
-                board.undo();
+    /**
+     * Lazy SMP: every thread searches its own board built from the snapshot and they cooperate only
+     * through the shared transposition table. The result is the main worker's, with node counts summed
+     * over all workers.
+     */
+    public static SearchResult search(BoardSnapshot snapshot, SearchLimits limits) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        TranspositionTable tt = TT;
+        int threads = ChessEngine.threads;
+        tt.newSearch();
+        TimeManager timeManager = new TimeManager(limits);
+        AtomicBoolean stopSignal = new AtomicBoolean();
+        Set<Pruning> enabledPruning = enabledPruning();
+        NeuralNetwork network = ChessEngine.network;
+        Bitbases bitbases = ChessEngine.bitbases;
+
+        List<SearchWorker> helpers = new ArrayList<>();
+        List<Thread> helperThreads = new ArrayList<>();
+        SearchWorker main;
+        SearchResult result;
+        long nodes;
+        // The main worker raises the stop signal when it returns; if it throws instead, the helpers
+        // must still be told to stop or they would keep deepening on their own.
+        try {
+            for (int id = 1; id < threads; id++) {
+                SearchWorker helper = new SearchWorker(snapshot.toBoard(), tt, timeManager, stopSignal, enabledPruning, id, network, bitbases);
+                helpers.add(helper);
+                helperThreads.add(Thread.ofPlatform().name("search-helper-" + id).daemon().start(helper::iterativeDeepening));
+            }
 
-                Move currentMove = new Move(moveObj.piece(), moveObj.to(), result.eval(), moveObj.promotion());
+            main = new SearchWorker(snapshot.toBoard(), tt, timeManager, stopSignal, enabledPruning, 0, network, bitbases);
+            result = main.iterativeDeepening();
 
-                if (isMaximizing) {
-                    if (result.eval() > bestMove.eval() || bestMove.piece() == null) bestMove = currentMove;
-                    alpha = Math.max(alpha, result.eval());
-                } else {
-                    if (result.eval() < bestMove.eval() || bestMove.piece() == null) bestMove = currentMove;
-                    beta = Math.min(beta, result.eval());
+            nodes = result.nodes();
+            for (int i = 0; i < helperThreads.size(); i++) {
+                try {
+                    helperThreads.get(i).join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 }
-
-                if (beta <= alpha) break;
+                nodes += helpers.get(i).getNodes();
             }
+        } finally {
+            stopSignal.set(true);
         }
-
-        saveCache(zobristKey, bestMove, alphaOriginal, beta, depth);
-        return bestMove;
+        result = new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.elapsedMs());
+        if (event.shouldCommit()) {
+            event.threads = helpers.size() + 1;
+            event.maxDepth = limits.maxDepth();
+            event.maxNodes = limits.maxNodes();
+            event.timeBudget = Math.max(limits.moveTimeMs(), limits.timeBudgetMs());
+            event.depth = result.depth();
+            event.score = result.score();
+            event.bestMove = Moves.toString(result.bestMove());
+            event.nodes = nodes;
+            event.nps = SearchWorker.nodesPerSecond(nodes, result.elapsedMs());
+            event.commit();
+        }
+        recordTableUsage(tt, main, helpers);
+        recordEvalCacheUsage(main, helpers);
+        return result;
     }
 
-    private static float quiescenceSearch(Board board, float alpha, float beta, int qDepth) {
-        return quiescenceSearchMinMax(board, alpha, beta, qDepth);
+    private static void recordTableUsage(TranspositionTable tt, SearchWorker main, List<SearchWorker> helpers) {
+        TranspositionTableEvent event = new TranspositionTableEvent();
+        if (!event.isEnabled()) return;
+        event.probes = main.getTtProbes();
+        event.hits = main.getTtHits();
+        event.stores = main.getTtStores();
+        for (SearchWorker helper : helpers) {
+            event.probes += helper.getTtProbes();
+            event.hits += helper.getTtHits();
+            event.stores += helper.getTtStores();
+        }
+        event.hitRate = event.probes == 0 ? 0 : (double) event.hits / event.probes;
+        event.fill = tt.hashFull() / 1000.0;
+        event.commit();
     }
 
-    private static float quiescenceSearchMinMax(Board board, float alpha, float beta, int qDepth) {
-        if (qDepth > MAX_Q_DEPTH) return BoardEvaluator.evaluate(board);
-
-        float standPat = BoardEvaluator.evaluate(board);
-        boolean isMaximizing = board.getTurn() == Color.WHITE;
-
-        if (isMaximizing) {
-            if (standPat >= beta) return beta;
-            if (standPat > alpha) alpha = standPat;
-        } else {
-            if (standPat <= alpha) return alpha;
-            if (standPat < beta) beta = standPat;
+    private static void recordEvalCacheUsage(SearchWorker main, List<SearchWorker> helpers) {
+        EvalCacheEvent event = new EvalCacheEvent();
+        if (!event.isEnabled()) return;
+        event.hits = main.getEvalCacheHits();
+        event.misses = main.getEvalCacheMisses();
+        for (SearchWorker helper : helpers) {
+            event.hits += helper.getEvalCacheHits();
+            event.misses += helper.getEvalCacheMisses();
         }
+        long probes = event.hits + event.misses;
+        event.hitRate = probes == 0 ? 0 : (double) event.hits / probes;
+        event.commit();
+    }
 
-        List<Move> captures = generateAllMoves(board, true);
-
-        for (Move move : captures) {
-            if (board.movePiece(move.piece().getPosition(), move.to())) {
-                if (move.promotion() != null) board.promote(move.piece().getPosition(), move.to(), move.promotion());
+    public static void setThreads(int threadCount) {
+        threads = Math.max(1, threadCount);
+    }
 
-                // Passa qDepth + 1
-                float score = quiescenceSearchMinMax(board, alpha, beta, qDepth + 1);
-                board.undo();
+    public static int getThreads() {
+        return threads;
+    }
 
-                if (isMaximizing) {
-                    if (score >= beta) return beta;
-                    if (score > alpha) alpha = score;
-                } else {
-                    if (score <= alpha) return alpha;
-                    if (score < beta) beta = score;
-                }
-            }
-        }
-        return isMaximizing ? alpha : beta;
+    public static synchronized void setPruning(Pruning technique, boolean enabled) {
+        if (enabled) pruning.add(technique);
+        else pruning.remove(technique);
     }
 
-    private static Optional<Move> getCache(long zobristKey, int depth, float alpha, float beta) {
-        TranspositionTable.TTEntry ttEntry = TT.probe(zobristKey);
+    public static synchronized boolean isPruningEnabled(Pruning technique) {
+        return pruning.contains(technique);
+    }
 
-        if (ttEntry != null && ttEntry.depth() >= depth) {
-            Move move = ttEntry.bestMove();
-            if (ttEntry.flag() == TranspositionTable.FLAG_EXACT) {
-                return Optional.of(move);
-            } else if (ttEntry.flag() == TranspositionTable.FLAG_LOWERBOUND) {
-                alpha = Math.max(alpha, ttEntry.score());
-            } else if (ttEntry.flag() == TranspositionTable.FLAG_UPPERBOUND) {
-                beta = Math.min(beta, ttEntry.score());
-            }
+    private static synchronized Set<Pruning> enabledPruning() {
+        return Collections.unmodifiableSet(EnumSet.copyOf(pruning));
+    }
 
-            if (alpha >= beta) return Optional.of(move);
-        }
-        return Optional.empty();
+    public static void setHashSize(int sizeInMb) {
+        TT = new TranspositionTable(sizeInMb);
     }
 
-    private static void saveCache(long zobristKey, Move move, float alphaOriginal, float beta, int depth) {
-        int flag;
-        if (move.eval() <= alphaOriginal) {
-            flag = TranspositionTable.FLAG_UPPERBOUND; // Fail-low
-        } else if (move.eval() >= beta) {
-            flag = TranspositionTable.FLAG_LOWERBOUND; // Fail-high
-        } else {
-            flag = TranspositionTable.FLAG_EXACT;
-        }
+    public static void clearHash() {
+        TT.clear();
+    }
 
-        TT.store(zobristKey, move.eval(), depth, flag, move);
+    /**
+     * Evaluates with the network in the given file from the next search on.
+     */
+    public static void loadNetwork(Path path) throws IOException {
+        network = NeuralNetwork.load(path);
     }
 
-    private static List<Move> generateAllMoves(Board board, boolean onlyCaptures) {
-        List<Piece> pieces = new ArrayList<>(board.getPieces(board.getTurn()));
-        List<Move> allMoves = new ArrayList<>();
+    /**
+     * Goes back to the hand-written evaluation.
+     */
+    public static void clearNetwork() {
+        network = null;
+    }
 
-        for (Piece piece : pieces) {
-            for (Position move : piece.getPossibleMoves(board)) {
-                boolean isCapture = isCapturingMove(board, piece, move);
+    public static boolean isNetworkLoaded() {
+        return network != null;
+    }
 
-                boolean isPromotion = (piece instanceof Pawn pawn && pawn.reachedLastRank(move));
+    public static void openBook(Path path) throws IOException {
+        book = OpeningBook.open(path);
+    }
 
-                if (onlyCaptures && !isCapture && !isPromotion) continue;
+    public static void closeBook() {
+        book = null;
+    }
 
-                if (isPromotion) {
-                    if (onlyCaptures) {
-                        allMoves.add(new Move(piece, move, 0, Queen.class));
-                    } else {
-                        for (Class<? extends Piece> promotionType : PROMOTION_PIECES) {
-                            allMoves.add(new Move(piece, move, 0, promotionType));
-                        }
-                    }
-                } else {
-                    allMoves.add(new Move(piece, move, 0, null));
-                }
-            }
-        }
+    /**
+     * Uses the endgame bitbases in {@code directory}, as written by {@link BitbaseGenerator}.
+     */
+    public static void openBitbases(Path directory) {
+        bitbases = new Bitbases(directory);
+    }
 
-        allMoves.sort((m1, m2) -> {
-            int score1 = scoreMove(board, m1.piece(), m1.to());
-            int score2 = scoreMove(board, m2.piece(), m2.to());
-            return Integer.compare(score2, score1);
-        });
+    public static void closeBitbases() {
+        bitbases = null;
+    }
 
-        return allMoves;
+    /**
+     * The network named by the {@code chess.nnue} system property, if any. A missing or broken file
+     * leaves the hand-written evaluation in place.
+     */
+    private static NeuralNetwork loadDefaultNetwork() {
+        String path = System.getProperty("chess.nnue");
+        if (path == null || path.isBlank()) return null;
+        try {
+            return NeuralNetwork.load(Path.of(path));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
     }
 
-    private static int scoreMove(Board board, Piece piece, Position to) {
-        int score = 0;
-        if (isCapturingMove(board, piece, to)) {
-            Piece victim = board.getPieceAt(to);
-            score += 10 * victim.getValue() - piece.getValue();
+    /**
+     * The Polyglot book named by the {@code chess.book} system property, if any.
+     */
+    private static OpeningBook openDefaultBook() {
+        String path = System.getProperty("chess.book");
+        if (path == null || path.isBlank()) return null;
+        try {
+            return OpeningBook.open(Path.of(path));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
         }
-        if (piece instanceof Pawn && board.isEnPassantLocation(piece.getColor(), to)) score += 10 - 1;
-        if (piece instanceof Pawn pawn && pawn.reachedLastRank(to)) score += 900;
-        return score;
+    }
+
+    /**
+     * The bitbases in the directory named by the {@code chess.bitbases} system property, if any.
+     */
+    private static Bitbases openDefaultBitbases() {
+        String path = System.getProperty("chess.bitbases");
+        if (path == null || path.isBlank()) return null;
+        return new Bitbases(Path.of(path));
     }
 }
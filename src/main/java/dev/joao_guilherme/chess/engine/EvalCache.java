@@ -0,0 +1,58 @@
+package dev.joao_guilherme.chess.engine;
+
+/**
+ * Direct-mapped cache of full static evaluations keyed by the Zobrist key. Each entry is a single
+ * {@code long}: the upper 48 bits of the key, to recognise the position, and the score as a signed
+ * 16-bit value in the low bits. Each search worker owns one, so it needs no synchronisation.
+ * <p>
+ * Only complete evaluations are stored; a lazy early exit is an estimate tied to its window and
+ * would be wrong for the next caller.
+ */
+public class EvalCache {
+
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+    public static final int MISS = Integer.MIN_VALUE;
+
+    private static final long KEY_MASK = 0xFFFF_FFFF_FFFF_0000L;
+    private static final long SCORE_MASK = 0xFFFFL;
+
+    private final long[] entries;
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    public EvalCache() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    public EvalCache(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        this.entries = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * The cached evaluation for the key, or {@link #MISS}.
+     */
+    public int probe(long key) {
+        long entry = entries[(int) key & mask];
+        if (entry != 0 && (entry & KEY_MASK) == (key & KEY_MASK)) {
+            hits++;
+            return (short) (entry & SCORE_MASK);
+        }
+        misses++;
+        return MISS;
+    }
+
+    public void store(long key, int score) {
+        entries[(int) key & mask] = (key & KEY_MASK) | (score & SCORE_MASK);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,31 @@
+package dev.joao_guilherme.chess.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event with the evaluation cache hits and misses of one search, summed over the
+ * caches of all of its threads.
+ */
+@Name("dev.joao_guilherme.chess.EvalCache")
+@Label("Evaluation Cache Usage")
+@Category({"Chess", "Engine"})
+@Description("Evaluation cache hits and misses of one search")
+@StackTrace(false)
+public class EvalCacheEvent extends Event {
+
+    @Label("Hits")
+    long hits;
+
+    @Label("Misses")
+    long misses;
+
+    @Label("Hit Rate")
+    @Percentage
+    double hitRate;
+}
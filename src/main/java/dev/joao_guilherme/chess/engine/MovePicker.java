@@ -0,0 +1,208 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Moves;
+
+/**
+ * Hands out the moves of one node in stages, generating and scoring each group only once the
+ * previous one is exhausted: the transposition table move, winning and equal captures, the two
+ * killers and the countermove, quiet moves by history, and losing captures last. Captures are
+ * ordered by MVV-LVA and split by static exchange evaluation, which is only computed for the
+ * captures actually picked. Within a stage the
+ * best remaining move is picked by selection, so a node that cuts off early never pays for sorting
+ * moves it does not look at.
+ * <p>
+ * A picker is reused across nodes; {@link #init} resets it for the current position.
+ */
+public class MovePicker {
+
+    private static final int STAGE_TT_MOVE = 0;
+    private static final int STAGE_GENERATE_CAPTURES = 1;
+    private static final int STAGE_GOOD_CAPTURES = 2;
+    private static final int STAGE_FIRST_KILLER = 3;
+    private static final int STAGE_SECOND_KILLER = 4;
+    private static final int STAGE_COUNTER_MOVE = 5;
+    private static final int STAGE_GENERATE_QUIETS = 6;
+    private static final int STAGE_QUIETS = 7;
+    private static final int STAGE_BAD_CAPTURES = 8;
+    private static final int STAGE_DONE = 9;
+
+    private static final int PROMOTION_SCORE = 900;
+
+    /**
+     * Most valuable victim, least valuable attacker, indexed by {@code [victimType][attackerType]}.
+     */
+    private static final int[][] MVV_LVA = new int[6][6];
+
+    static {
+        for (int victim = PieceBitboards.PAWN; victim <= PieceBitboards.KING; victim++) {
+            for (int attacker = PieceBitboards.PAWN; attacker <= PieceBitboards.KING; attacker++) {
+                MVV_LVA[victim][attacker] = (victim + 1) * 10 - attacker;
+            }
+        }
+    }
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    private final int[] badCaptures = new int[MoveGenerator.MAX_MOVES];
+    private final int[] exchangeGains = new int[StaticExchange.MAX_EXCHANGE];
+
+    private Board board;
+    private int[] history;
+    private int ttMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int counterMove;
+    private boolean capturesOnly;
+    private long pinned;
+    private long checkMask;
+
+    private int stage;
+    private int index;
+    private int count;
+    private int badCaptureIndex;
+    private int badCaptureCount;
+
+    /**
+     * Prepares the picker for a node. In captures-only mode (quiescence) the killer and quiet stages
+     * are skipped and losing captures are dropped altogether.
+     */
+    public void init(Board board, int ttMove, int firstKiller, int secondKiller, int counterMove, int[] history, boolean capturesOnly) {
+        this.board = board;
+        this.history = history;
+        this.capturesOnly = capturesOnly;
+        this.ttMove = MoveGenerator.isPseudoLegal(board, ttMove) && (!capturesOnly || isNoisy(ttMove)) ? ttMove : Moves.NONE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.counterMove = counterMove;
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        this.pinned = MoveGenerator.pinnedPieces(bitboards, us, bitboards.kingSquare(us));
+        this.checkMask = MoveGenerator.checkMask(board);
+        this.stage = STAGE_TT_MOVE;
+        this.index = 0;
+        this.count = 0;
+        this.badCaptureIndex = 0;
+        this.badCaptureCount = 0;
+    }
+
+    /**
+     * Whether a move handed out by {@link #next()} is legal, using the pins and checks of the node
+     * computed once by {@link #init}. The board must be back in the position the picker was
+     * initialised with.
+     */
+    public boolean isLegal(int move) {
+        return MoveGenerator.isLegal(board, move, pinned, checkMask);
+    }
+
+    /**
+     * The next pseudo-legal move, or {@link Moves#NONE} once every stage is exhausted.
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case STAGE_TT_MOVE -> {
+                    stage = STAGE_GENERATE_CAPTURES;
+                    if (ttMove != Moves.NONE) return ttMove;
+                }
+                case STAGE_GENERATE_CAPTURES -> {
+                    count = MoveGenerator.generateCaptures(board, moves, 0);
+                    index = 0;
+                    for (int i = 0; i < count; i++) scores[i] = scoreCapture(moves[i]);
+                    stage = STAGE_GOOD_CAPTURES;
+                }
+                case STAGE_GOOD_CAPTURES -> {
+                    while (index < count) {
+                        int move = pickBest();
+                        if (move == ttMove) continue;
+                        if (isLosingCapture(move)) {
+                            badCaptures[badCaptureCount++] = move;
+                            continue;
+                        }
+                        return move;
+                    }
+                    stage = capturesOnly ? STAGE_DONE : STAGE_FIRST_KILLER;
+                }
+                case STAGE_FIRST_KILLER -> {
+                    stage = STAGE_SECOND_KILLER;
+                    if (isUsableQuiet(firstKiller)) return firstKiller;
+                }
+                case STAGE_SECOND_KILLER -> {
+                    stage = STAGE_COUNTER_MOVE;
+                    if (secondKiller != firstKiller && isUsableQuiet(secondKiller)) return secondKiller;
+                }
+                case STAGE_COUNTER_MOVE -> {
+                    stage = STAGE_GENERATE_QUIETS;
+                    if (counterMove != firstKiller && counterMove != secondKiller && isUsableQuiet(counterMove)) {
+                        return counterMove;
+                    }
+                }
+                case STAGE_GENERATE_QUIETS -> {
+                    count = MoveGenerator.generateQuiets(board, moves, 0);
+                    index = 0;
+                    for (int i = 0; i < count; i++) scores[i] = history[butterflyIndex(moves[i])];
+                    stage = STAGE_QUIETS;
+                }
+                case STAGE_QUIETS -> {
+                    while (index < count) {
+                        int move = pickBest();
+                        if (move == ttMove || move == firstKiller || move == secondKiller || move == counterMove) continue;
+                        return move;
+                    }
+                    stage = STAGE_BAD_CAPTURES;
+                }
+                case STAGE_BAD_CAPTURES -> {
+                    if (badCaptureIndex < badCaptureCount) return badCaptures[badCaptureIndex++];
+                    stage = STAGE_DONE;
+                }
+                default -> {
+                    return Moves.NONE;
+                }
+            }
+        }
+    }
+
+    static int butterflyIndex(int move) {
+        return Moves.from(move) * 64 + Moves.to(move);
+    }
+
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int move = moves[best];
+        int score = scores[best];
+        moves[best] = moves[index];
+        scores[best] = scores[index];
+        moves[index] = move;
+        scores[index] = score;
+        index++;
+        return move;
+    }
+
+    private int scoreCapture(int move) {
+        PieceBitboards bitboards = board.getBitboards();
+        int attacker = PieceBitboards.typeOf(bitboards.pieceAt(Moves.from(move)));
+        int victimCode = bitboards.pieceAt(Moves.to(move));
+        int victim = victimCode == PieceBitboards.EMPTY ? PieceBitboards.PAWN : PieceBitboards.typeOf(victimCode);
+        int score = MoveGenerator.isCapture(board, move) ? MVV_LVA[victim][attacker] : 0;
+        if (Moves.promotion(move) == PieceBitboards.QUEEN) score += PROMOTION_SCORE;
+        return score;
+    }
+
+    private boolean isLosingCapture(int move) {
+        return Moves.promotion(move) == 0 && StaticExchange.evaluate(board, move, exchangeGains) < 0;
+    }
+
+    private boolean isNoisy(int move) {
+        return Moves.promotion(move) == PieceBitboards.QUEEN || MoveGenerator.isCapture(board, move);
+    }
+
+    private boolean isUsableQuiet(int move) {
+        return move != Moves.NONE && move != ttMove && Moves.promotion(move) == 0
+                && MoveGenerator.isPseudoLegal(board, move) && !MoveGenerator.isCapture(board, move);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.joao_guilherme.chess.engine;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+
+/**
+ * Weights of a small quantized evaluation network: 768 inputs (piece code and square), one hidden
+ * layer seen from each side's perspective, and a single output.
+ * <p>
+ * The file is little-endian: the magic {@code "JGNN"}, the format version and the hidden size
+ * {@code H} as ints, then 16-bit weights: {@code 768 * H} input weights grouped by feature,
+ * {@code H} hidden biases, {@code 2 * H} output weights (side to move first) and one output bias.
+ * Hidden values are clipped to {@code [0, QA]}; the output is scaled back to centipawns with
+ * {@code SCALE / (QA * QB)}. Weights are widened to {@code int} on load so the accumulator and the
+ * output layer run on {@code IntVector} lanes without conversions.
+ */
+public final class NeuralNetwork {
+
+    public static final int INPUTS = 768;
+    public static final int QA = 255;
+    public static final int QB = 64;
+    public static final int SCALE = 400;
+
+    private static final int MAGIC = 0x4E4E474A;
+    private static final int VERSION = 1;
+
+    final int hiddenSize;
+    final int[] inputWeights;
+    final int[] hiddenBiases;
+    final int[] outputWeights;
+    final int outputBias;
+
+    private NeuralNetwork(int hiddenSize, int[] inputWeights, int[] hiddenBiases, int[] outputWeights, int outputBias) {
+        this.hiddenSize = hiddenSize;
+        this.inputWeights = inputWeights;
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    public static NeuralNetwork load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in);
+        }
+    }
+
+    public static NeuralNetwork load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        ByteBuffer header = ByteBuffer.wrap(data.readNBytes(12)).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.remaining() < 12 || header.getInt() != MAGIC) throw new IOException("Not a network file");
+        int version = header.getInt();
+        if (version != VERSION) throw new IOException("Unsupported network version " + version);
+        int hiddenSize = header.getInt();
+        if (hiddenSize <= 0 || hiddenSize > 4096) throw new IOException("Invalid hidden layer size " + hiddenSize);
+
+        int[] inputWeights = readShorts(data, INPUTS * hiddenSize);
+        int[] hiddenBiases = readShorts(data, hiddenSize);
+        int[] outputWeights = readShorts(data, 2 * hiddenSize);
+        int outputBias = readShorts(data, 1)[0];
+        return new NeuralNetwork(hiddenSize, inputWeights, hiddenBiases, outputWeights, outputBias);
+    }
+
+    private static int[] readShorts(DataInputStream data, int count) throws IOException {
+        byte[] bytes = data.readNBytes(count * Short.BYTES);
+        if (bytes.length != count * Short.BYTES) throw new IOException("Truncated network file");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) values[i] = buffer.getShort();
+        return values;
+    }
+
+    /**
+     * Input feature of a piece as seen by {@code perspective}: black sees the board mirrored
+     * vertically with the colors swapped, so both perspectives share one set of weights.
+     */
+    static int feature(int perspective, int code, int square) {
+        if (perspective == 0) return code * 64 + square;
+        return code(colorOf(code) ^ 1, typeOf(code)) * 64 + (square ^ 56);
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+}
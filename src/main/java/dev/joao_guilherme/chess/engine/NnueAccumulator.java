@@ -0,0 +1,99 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.board.PieceListener;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * First-layer accumulators of a {@link NeuralNetwork} for one board, one per perspective. Attached to
+ * the board's bitboards as their {@link PieceListener}, every piece placed or removed adds or
+ * subtracts one weight column, so making and unmaking a move costs a few vector additions instead of
+ * a full refresh. Integer sums are exact, so unmaking restores the accumulators bit for bit.
+ */
+public class NnueAccumulator implements PieceListener {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int INT_SUM_BLOCK = 256;
+
+    private final NeuralNetwork network;
+    private final int[][] accumulators;
+
+    public NnueAccumulator(NeuralNetwork network) {
+        this.network = network;
+        this.accumulators = new int[2][network.hiddenSize];
+    }
+
+    /**
+     * Rebuilds both accumulators from the pieces on the board and starts following it.
+     */
+    public void attach(PieceBitboards bitboards) {
+        for (int perspective = 0; perspective < 2; perspective++) {
+            System.arraycopy(network.hiddenBiases, 0, accumulators[perspective], 0, network.hiddenSize);
+        }
+        for (int square = 0; square < 64; square++) {
+            int code = bitboards.pieceAt(square);
+            if (code != PieceBitboards.EMPTY) pieceAdded(code, square);
+        }
+        bitboards.setListener(this);
+    }
+
+    @Override
+    public void pieceAdded(int code, int square) {
+        for (int perspective = 0; perspective < 2; perspective++) {
+            update(accumulators[perspective], NeuralNetwork.feature(perspective, code, square) * network.hiddenSize, 1);
+        }
+    }
+
+    @Override
+    public void pieceRemoved(int code, int square) {
+        for (int perspective = 0; perspective < 2; perspective++) {
+            update(accumulators[perspective], NeuralNetwork.feature(perspective, code, square) * network.hiddenSize, -1);
+        }
+    }
+
+    /**
+     * Network output in centipawns from the point of view of {@code sideToMove}.
+     */
+    public int evaluate(int sideToMove) {
+        long sum = dot(accumulators[sideToMove], 0) + dot(accumulators[sideToMove ^ 1], network.hiddenSize);
+        return (int) ((sum + network.outputBias) * NeuralNetwork.SCALE / (NeuralNetwork.QA * NeuralNetwork.QB));
+    }
+
+    private void update(int[] accumulator, int offset, int sign) {
+        int[] weights = network.inputWeights;
+        int size = network.hiddenSize;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+            IntVector column = IntVector.fromArray(SPECIES, weights, offset + i);
+            IntVector current = IntVector.fromArray(SPECIES, accumulator, i);
+            (sign > 0 ? current.add(column) : current.sub(column)).intoArray(accumulator, i);
+        }
+        for (; i < size; i++) accumulator[i] += sign * weights[offset + i];
+    }
+
+    /**
+     * Clipped-ReLU activations of one perspective dotted with its half of the output weights. A
+     * product is at most {@code QA * 2^15} in magnitude, so {@link #INT_SUM_BLOCK} of them still add up
+     * within an int; each block is reduced and folded into a long total.
+     */
+    private long dot(int[] accumulator, int weightOffset) {
+        int[] weights = network.outputWeights;
+        int size = network.hiddenSize;
+        long total = 0;
+        int i = 0;
+        int bound = SPECIES.loopBound(size);
+        while (i < bound) {
+            int blockEnd = Math.min(bound, i + INT_SUM_BLOCK);
+            IntVector sum = IntVector.zero(SPECIES);
+            for (; i < blockEnd; i += SPECIES.length()) {
+                IntVector activation = IntVector.fromArray(SPECIES, accumulator, i).max(0).min(NeuralNetwork.QA);
+                sum = sum.add(activation.mul(IntVector.fromArray(SPECIES, weights, weightOffset + i)));
+            }
+            total += sum.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < size; i++) total += Math.clamp(accumulator[i], 0, NeuralNetwork.QA) * weights[weightOffset + i];
+        return total;
+    }
+}
@@ -0,0 +1,121 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.board.PolyglotKey;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Moves;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Reader for Polyglot {@code .bin} opening books. The file is memory-mapped and never copied onto the
+ * heap: it is a big-endian array of 16-byte entries (key, move, weight, learn) sorted by key, so the
+ * moves of a position are found with a binary search for the first entry carrying its
+ * {@link PolyglotKey}. A move is picked at random with probability proportional to its weight.
+ */
+public class OpeningBook {
+
+    private static final int ENTRY_SIZE = 16;
+
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+    private final RandomGenerator random;
+
+    private OpeningBook(MappedByteBuffer entries, RandomGenerator random) {
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_SIZE;
+        this.random = random;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        return open(path, RandomGenerator.getDefault());
+    }
+
+    public static OpeningBook open(Path path, RandomGenerator random) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() % ENTRY_SIZE != 0 || channel.size() / ENTRY_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot book: " + path);
+            }
+            // The mapping outlives the channel.
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), random);
+        }
+    }
+
+    /**
+     * A weighted random book move for the position, {@link Moves#NONE} when the book has none. Moves
+     * that are not legal on the board, as from a colliding key, are skipped.
+     */
+    public int probe(Board board) {
+        long key = PolyglotKey.compute(board);
+        int first = firstEntry(key);
+
+        int totalWeight = 0;
+        for (int i = first; i < entryCount && keyAt(i) == key; i++) {
+            if (toMove(board, i) != Moves.NONE) totalWeight += weightAt(i);
+        }
+        if (totalWeight == 0) return Moves.NONE;
+
+        int pick = random.nextInt(totalWeight);
+        for (int i = first; i < entryCount && keyAt(i) == key; i++) {
+            int move = toMove(board, i);
+            if (move == Moves.NONE) continue;
+            pick -= weightAt(i);
+            if (pick < 0) return move;
+        }
+        return Moves.NONE;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Index of the first entry whose key is not below {@code key}, comparing keys as unsigned.
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private int weightAt(int index) {
+        return Short.toUnsignedInt(entries.getShort(index * ENTRY_SIZE + 10));
+    }
+
+    /**
+     * Our encoding of the entry's move, or {@link Moves#NONE} when it is not legal here. Polyglot
+     * packs the target in bits 0-5 and the origin in bits 6-11 with our square numbering, the
+     * promotion piece in bits 12-14 counting from the knight, and writes castling as the king taking
+     * its own rook.
+     */
+    private int toMove(Board board, int index) {
+        int raw = Short.toUnsignedInt(entries.getShort(index * ENTRY_SIZE + 8));
+        int to = raw & 0x3F;
+        int from = (raw >>> 6) & 0x3F;
+        int promotion = (raw >>> 12) & 0x7;
+
+        int code = board.getBitboards().pieceAt(from);
+        if (code != PieceBitboards.EMPTY && PieceBitboards.typeOf(code) == PieceBitboards.KING && to >> 3 == from >> 3) {
+            if (from % 8 == 4 && to % 8 == 7) to = from + 2;
+            else if (from % 8 == 4 && to % 8 == 0) to = from - 2;
+        }
+
+        int move = Moves.encode(from, to, promotion == 0 ? 0 : PieceBitboards.KNIGHT + promotion - 1);
+        return MoveGenerator.isLegal(board, move) ? move : Moves.NONE;
+    }
+}
@@ -0,0 +1,118 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.PieceBitboards;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.PAWN;
+import static dev.joao_guilherme.chess.movements.Bitboards.*;
+
+/**
+ * Pawn-structure terms that depend on the pawns alone: doubled, isolated, backward and passed pawns.
+ * Their result only changes when a pawn moves, is captured or promotes, which is what makes it
+ * worth caching under the pawn key in a {@link PawnTable}.
+ */
+public final class PawnStructure {
+
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 90, 130, 0};
+
+    /**
+     * Squares in front of a pawn on its own file, by {@code [color][square]}.
+     */
+    private static final long[][] FORWARD_FILE = new long[2][64];
+    /**
+     * Squares in front of a pawn on its own and the adjacent files; no enemy pawn there means passed.
+     */
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    /**
+     * Squares on the adjacent files level with or behind a pawn, where a friendly pawn could still
+     * support its advance.
+     */
+    private static final long[][] SUPPORT_SPAN = new long[2][64];
+    private static final long[] ADJACENT_FILES = new long[8];
+    /**
+     * The two ranks in front of a king on its own and the adjacent files, where shelter pawns stand.
+     */
+    private static final long[][] SHIELD = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILE_A << (file - 1) : 0) | (file < 7 ? FILE_A << (file + 1) : 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            long fileMask = FILE_A << file(square);
+            long adjacent = ADJACENT_FILES[file(square)];
+            long above = rank(square) == 7 ? 0 : -1L << ((rank(square) + 1) * 8);
+            long below = (1L << (rank(square) * 8)) - 1;
+            FORWARD_FILE[0][square] = fileMask & above;
+            FORWARD_FILE[1][square] = fileMask & below;
+            PASSED_SPAN[0][square] = (fileMask | adjacent) & above;
+            PASSED_SPAN[1][square] = (fileMask | adjacent) & below;
+            SUPPORT_SPAN[0][square] = adjacent & ~above;
+            SUPPORT_SPAN[1][square] = adjacent & ~below;
+            long whiteShieldRanks = (RANK_1 << Math.min(56, (rank(square) + 1) * 8)) | (RANK_1 << Math.min(56, (rank(square) + 2) * 8));
+            long blackShieldRanks = (RANK_1 << Math.max(0, (rank(square) - 1) * 8)) | (RANK_1 << Math.max(0, (rank(square) - 2) * 8));
+            SHIELD[0][square] = (fileMask | adjacent) & above & whiteShieldRanks;
+            SHIELD[1][square] = (fileMask | adjacent) & below & blackShieldRanks;
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    public static long forwardFile(int color, int square) {
+        return FORWARD_FILE[color][square];
+    }
+
+    public static long shield(int color, int kingSquare) {
+        return SHIELD[color][kingSquare];
+    }
+
+    /**
+     * Evaluates the pawns of both sides into {@code slot} of the table: midgame and endgame scores
+     * from white's point of view and the set of passed pawns.
+     */
+    static void evaluate(PieceBitboards bitboards, PawnTable table, int slot) {
+        int midgame = 0;
+        int endgame = 0;
+        long passed = 0;
+
+        for (int color = 0; color < 2; color++) {
+            int sign = color == 0 ? 1 : -1;
+            long own = bitboards.pieces(color, PAWN);
+            long enemy = bitboards.pieces(color ^ 1, PAWN);
+
+            for (long pawns = own; pawns != 0; pawns &= pawns - 1) {
+                int square = Long.numberOfTrailingZeros(pawns);
+                int relativeRank = color == 0 ? rank(square) : 7 - rank(square);
+
+                if ((FORWARD_FILE[color][square] & own) != 0) {
+                    midgame += sign * DOUBLED_MIDGAME;
+                    endgame += sign * DOUBLED_ENDGAME;
+                } else if ((PASSED_SPAN[color][square] & enemy) == 0) {
+                    passed |= bit(square);
+                    midgame += sign * PASSED_MIDGAME[relativeRank];
+                    endgame += sign * PASSED_ENDGAME[relativeRank];
+                }
+
+                if ((ADJACENT_FILES[file(square)] & own) == 0) {
+                    midgame += sign * ISOLATED_MIDGAME;
+                    endgame += sign * ISOLATED_ENDGAME;
+                } else if ((SUPPORT_SPAN[color][square] & own) == 0 && relativeRank < 6) {
+                    int stop = color == 0 ? square + 8 : square - 8;
+                    if ((PAWN_ATTACKS[color][stop] & enemy) != 0) {
+                        midgame += sign * BACKWARD_MIDGAME;
+                        endgame += sign * BACKWARD_ENDGAME;
+                    }
+                }
+            }
+        }
+
+        table.fill(slot, bitboards.pawnKey(), midgame, endgame, passed);
+    }
+}
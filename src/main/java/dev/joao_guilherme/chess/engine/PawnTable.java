@@ -0,0 +1,81 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.PieceBitboards;
+
+/**
+ * Direct-mapped cache of {@link PawnStructure} results keyed by the pawn key. Each search worker owns
+ * one, so it needs no synchronisation.
+ * <p>
+ * An untouched slot holds key zero with zero scores and no passed pawns, which is exactly the
+ * evaluation of a board without pawns, the only position whose pawn key is zero.
+ */
+public class PawnTable {
+
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private final long[] keys;
+    private final int[] midgameScores;
+    private final int[] endgameScores;
+    private final long[] passedPawns;
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    public PawnTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    public PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        this.keys = new long[size];
+        this.midgameScores = new int[size];
+        this.endgameScores = new int[size];
+        this.passedPawns = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * The slot holding the pawn evaluation of the board, evaluating the pawns first on a miss.
+     */
+    public int probe(PieceBitboards bitboards) {
+        long key = bitboards.pawnKey();
+        int slot = (int) key & mask;
+        if (keys[slot] == key) {
+            hits++;
+        } else {
+            misses++;
+            PawnStructure.evaluate(bitboards, this, slot);
+        }
+        return slot;
+    }
+
+    void fill(int slot, long key, int midgame, int endgame, long passed) {
+        keys[slot] = key;
+        midgameScores[slot] = midgame;
+        endgameScores[slot] = endgame;
+        passedPawns[slot] = passed;
+    }
+
+    public int midgame(int slot) {
+        return midgameScores[slot];
+    }
+
+    public int endgame(int slot) {
+        return endgameScores[slot];
+    }
+
+    /**
+     * Passed pawns of both colors.
+     */
+    public long passedPawns(int slot) {
+        return passedPawns[slot];
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.joao_guilherme.chess.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning one {@link ChessEngine#search} call: it begins with the search,
+ * carrying the limits it was given, and is committed when the search returns, carrying the result.
+ */
+@Name("dev.joao_guilherme.chess.Search")
+@Label("Search")
+@Category({"Chess", "Engine"})
+@Description("One engine search, from its limits to its best move")
+public class SearchEvent extends Event {
+
+    @Label("Threads")
+    int threads;
+
+    @Label("Depth Limit")
+    int maxDepth;
+
+    @Label("Node Limit")
+    long maxNodes;
+
+    @Label("Time Budget")
+    @Timespan(Timespan.MILLISECONDS)
+    long timeBudget;
+
+    @Label("Completed Depth")
+    int depth;
+
+    @Label("Score")
+    @Description("Centipawns for the side to move")
+    int score;
+
+    @Label("Best Move")
+    String bestMove;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Nodes per Second")
+    long nps;
+}
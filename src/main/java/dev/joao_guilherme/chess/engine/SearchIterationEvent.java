@@ -0,0 +1,38 @@
+package dev.joao_guilherme.chess.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one completed iteration of the main search thread's iterative
+ * deepening. The principal variation is read back from the transposition table, and only when the
+ * event is going to be recorded.
+ */
+@Name("dev.joao_guilherme.chess.SearchIteration")
+@Label("Search Iteration")
+@Category({"Chess", "Engine"})
+@Description("One completed iterative-deepening iteration of the main search thread")
+@StackTrace(false)
+public class SearchIterationEvent extends Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Score")
+    @Description("Centipawns for the side to move")
+    int score;
+
+    @Label("Nodes")
+    @Description("Nodes searched by the main thread since the search began")
+    long nodes;
+
+    @Label("Nodes per Second")
+    long nps;
+
+    @Label("Principal Variation")
+    String pv;
+}
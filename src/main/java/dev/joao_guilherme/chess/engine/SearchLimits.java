@@ -0,0 +1,37 @@
+package dev.joao_guilherme.chess.engine;
+
+/**
+ * Limits for a single search. A zero field means the limit is not set; when several are set the
+ * search stops at whichever is reached first.
+ *
+ * @param maxDepth     deepest iteration to complete
+ * @param maxNodes     node budget across the whole search
+ * @param moveTimeMs   think for exactly this long
+ * @param timeBudgetMs think for at most this long, stopping early when another iteration is unlikely to finish
+ * @param remainingMs  time left on the engine's clock
+ * @param incrementMs  increment added to the engine's clock after each move
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long moveTimeMs, long timeBudgetMs, long remainingMs, long incrementMs) {
+
+    public static final int MAX_DEPTH = 64;
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0, 0, 0, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0, 0, 0, 0);
+    }
+
+    public static SearchLimits moveTime(long moveTimeMs) {
+        return new SearchLimits(0, 0, moveTimeMs, 0, 0, 0);
+    }
+
+    public static SearchLimits timeBudget(long timeBudgetMs) {
+        return new SearchLimits(0, 0, 0, timeBudgetMs, 0, 0);
+    }
+
+    public static SearchLimits clock(long remainingMs, long incrementMs) {
+        return new SearchLimits(0, 0, 0, 0, remainingMs, incrementMs);
+    }
+}
@@ -0,0 +1,8 @@
+package dev.joao_guilherme.chess.engine;
+
+/**
+ * Outcome of a search. The best move is {@link dev.joao_guilherme.chess.movements.Moves}-encoded,
+ * {@code Moves.NONE} when the side to move has no legal move.
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMs) {
+}
@@ -0,0 +1,566 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.board.Position;
+import dev.joao_guilherme.chess.board.TranspositionTable;
+import dev.joao_guilherme.chess.enums.Color;
+import dev.joao_guilherme.chess.enums.Pruning;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Moves;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs an iterative-deepening principal variation search on one board. Scores are integer
+ * centipawns from the side to move's point of view; a mate found {@code n} plies from the root
+ * scores {@code MATE_SCORE - n}. An iteration interrupted by the hard limit is thrown away and the
+ * move from the last completed depth is returned.
+ * <p>
+ * In a parallel search every thread owns one worker and its own board copy; workers only share the
+ * transposition table and the stop signal, so all other search state stays per thread.
+ */
+public class SearchWorker {
+
+    public static final int MATE_SCORE = 32000;
+    public static final int INFINITY = MATE_SCORE + 1;
+    private static final int MAX_PLY = 128;
+    /**
+     * Any score at least this far from zero is a forced mate.
+     */
+    public static final int MATE_BOUND = MATE_SCORE - MAX_PLY;
+    /**
+     * Score of a position the endgame bitbases call won, below any mate the search proves itself.
+     */
+    private static final int BITBASE_WIN = MATE_BOUND - MAX_PLY;
+
+    private static final int MAX_Q_DEPTH = 4;
+    private static final int DELTA_MARGIN = 200;
+    private static final int LIMIT_CHECK_INTERVAL = 1024;
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 25;
+
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int REVERSE_FUTILITY_MAX_DEPTH = 6;
+    private static final int REVERSE_FUTILITY_MARGIN = 80;
+    private static final int FUTILITY_MAX_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 120;
+    private static final int RAZORING_MAX_DEPTH = 2;
+    private static final int RAZORING_MARGIN = 300;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3;
+
+    /**
+     * Late move reductions by {@code [depth][moveNumber]}, growing with the logarithm of both.
+     */
+    private static final int[][] LMR_REDUCTIONS = new int[64][64];
+
+    private static final int HISTORY_MAX = 16_384;
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moveNumber = 1; moveNumber < 64; moveNumber++) {
+                LMR_REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
+
+    private final Board board;
+    private final TranspositionTable tt;
+    private final TimeManager timeManager;
+    private final AtomicBoolean stopSignal;
+    private final Set<Pruning> pruning;
+    private final int id;
+    private long nodes;
+    private long reportedNodes;
+    private long ttProbes;
+    private long ttHits;
+    private long ttStores;
+    private boolean stopped;
+    private int rootBestMove = Moves.NONE;
+
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[2][64 * 64];
+    private final int[] counterMoves = new int[64 * 64];
+    private final int[] playedMoves = new int[MAX_PLY];
+    private final int[][] quietsTried = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + MAX_Q_DEPTH + 2];
+    private final PawnTable pawnTable = new PawnTable();
+    private final EvalCache evalCache = new EvalCache();
+    private final NnueAccumulator accumulator;
+    private final Bitbases bitbases;
+    private final int[] bitbaseCodes = new int[Bitbases.MAX_PIECES - 2];
+    private final int[] bitbaseSquares = new int[Bitbases.MAX_PIECES - 2];
+
+    public SearchWorker(Board board, TranspositionTable tt, TimeManager timeManager, AtomicBoolean stopSignal, Set<Pruning> pruning, int id) {
+        this(board, tt, timeManager, stopSignal, pruning, id, null, null);
+    }
+
+    /**
+     * With a network the worker evaluates through an accumulator that follows its board; without
+     * one it falls back to the hand-written evaluation. Positions the bitbases cover are scored
+     * from them instead of being searched.
+     */
+    public SearchWorker(Board board, TranspositionTable tt, TimeManager timeManager, AtomicBoolean stopSignal, Set<Pruning> pruning, int id,
+                        NeuralNetwork network, Bitbases bitbases) {
+        this.board = board;
+        this.tt = tt;
+        this.timeManager = timeManager;
+        this.stopSignal = stopSignal;
+        this.pruning = pruning;
+        this.id = id;
+        this.bitbases = bitbases;
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker();
+        }
+        if (network != null) {
+            accumulator = new NnueAccumulator(network);
+            accumulator.attach(board.getBitboards());
+        } else {
+            accumulator = null;
+        }
+    }
+
+    /**
+     * Worker 0 drives the search and raises the stop signal when it is done. Helpers start at
+     * staggered depths so they fill the shared table ahead of the main thread, and keep deepening
+     * until they are told to stop.
+     */
+    public SearchResult iterativeDeepening() {
+        int bestMove = Moves.NONE;
+        int score = 0;
+        int completedDepth = 0;
+        boolean helper = id > 0;
+
+        for (int depth = 1 + id % 2; depth <= timeManager.maxDepth(); depth++) {
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            int result = aspirationSearch(depth, score);
+            if (stopped) break;
+
+            completedDepth = depth;
+            score = result;
+            if (rootBestMove != Moves.NONE) bestMove = rootBestMove;
+            if (helper) continue;
+            if (event.shouldCommit()) {
+                event.depth = depth;
+                event.score = score;
+                event.nodes = nodes;
+                event.nps = nodesPerSecond(nodes, timeManager.elapsedMillis());
+                event.pv = principalVariation(depth);
+                event.commit();
+            }
+            if (Math.abs(score) >= MATE_BOUND) break;
+            if (timeManager.softLimitReached()) break;
+        }
+
+        if (!helper) stopSignal.set(true);
+        if (bestMove == Moves.NONE && !helper) bestMove = firstLegalMove();
+        return new SearchResult(bestMove, score, completedDepth, nodes, timeManager.elapsedMillis());
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTtProbes() {
+        return ttProbes;
+    }
+
+    public long getTtHits() {
+        return ttHits;
+    }
+
+    public long getTtStores() {
+        return ttStores;
+    }
+
+    public long getEvalCacheHits() {
+        return evalCache.getHits();
+    }
+
+    public long getEvalCacheMisses() {
+        return evalCache.getMisses();
+    }
+
+    static long nodesPerSecond(long nodes, long elapsedMs) {
+        return nodes * 1000 / Math.max(1, elapsedMs);
+    }
+
+    /**
+     * The line the search expects, followed through the best moves the table holds from the root.
+     * Stops at a missing or illegal move, a repeated position or {@code maxLength} moves.
+     */
+    private String principalVariation(int maxLength) {
+        StringJoiner line = new StringJoiner(" ");
+        Set<Long> seen = new HashSet<>();
+        int played = 0;
+        while (played < maxLength && seen.add(board.getZobristKey())) {
+            long entry = tt.probe(board.getZobristKey());
+            int move = entry == TranspositionTable.NO_ENTRY ? Moves.NONE : TranspositionTable.move(entry);
+            if (move == Moves.NONE || !MoveGenerator.isLegal(board, move)) break;
+            line.add(Moves.toString(move));
+            board.makeMove(move);
+            played++;
+        }
+        for (int i = 0; i < played; i++) board.unmakeMove();
+        return line.toString();
+    }
+
+    /**
+     * Searches a narrow window around the previous iteration's score and widens the failing side
+     * until the result falls inside it. Shallow iterations and mate scores use the full window.
+     */
+    private int aspirationSearch(int depth, int previousScore) {
+        if (depth < ASPIRATION_MIN_DEPTH || Math.abs(previousScore) >= MATE_BOUND) {
+            return pvs(depth, 0, -INFINITY, INFINITY);
+        }
+
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(previousScore - delta, -INFINITY);
+        int beta = Math.min(previousScore + delta, INFINITY);
+        while (true) {
+            int score = pvs(depth, 0, alpha, beta);
+            if (stopped) return score;
+
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private int pvs(int depth, int ply, int alpha, int beta) {
+        if (shouldStop()) return 0;
+        nodes++;
+
+        boolean pvNode = beta - alpha > 1;
+        long zobristKey = board.getZobristKey();
+
+        if (ply > 0) {
+            if (isDrawn()) return 0;
+            if (ply >= MAX_PLY) return evaluate();
+        }
+
+        // A node in check is never left to quiescence, so it is searched, and probed, at depth 1 at
+        // least; otherwise the depth-0 entries quiescence stores would satisfy the probe.
+        boolean inCheck = board.isCheck(board.getTurn());
+        if (inCheck && depth <= 0) depth = 1;
+
+        long entry = probeTable(zobristKey);
+        int ttMove = entry == TranspositionTable.NO_ENTRY ? Moves.NONE : TranspositionTable.move(entry);
+        if (ply > 0) {
+            if (!pvNode && entry != TranspositionTable.NO_ENTRY && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                if (isCutoffBound(TranspositionTable.flag(entry), score, alpha, beta)) return score;
+            }
+            if (bitbases != null && Long.bitCount(board.getBitboards().occupied()) <= Bitbases.MAX_PIECES) {
+                int result = bitbases.probe(board, bitbaseCodes, bitbaseSquares);
+                if (result == Bitbase.WIN) return BITBASE_WIN - ply;
+                if (result == Bitbase.LOSS) return -BITBASE_WIN + ply;
+                if (result == Bitbase.DRAW) return 0;
+            }
+        }
+
+        if (depth <= 0) return quiescence(alpha, beta, ply, 0);
+
+        int previousMove = ply > 0 ? playedMoves[ply - 1] : Moves.NONE;
+        int staticEval = inCheck ? -INFINITY : evaluate();
+
+        if (!pvNode && !inCheck) {
+            if (pruning.contains(Pruning.REVERSE_FUTILITY) && depth <= REVERSE_FUTILITY_MAX_DEPTH
+                    && Math.abs(beta) < MATE_BOUND && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+                return staticEval;
+            }
+
+            if (pruning.contains(Pruning.RAZORING) && depth <= RAZORING_MAX_DEPTH
+                    && staticEval + RAZORING_MARGIN * depth <= alpha) {
+                int score = quiescence(alpha, beta, ply, 0);
+                if (stopped) return 0;
+                if (score <= alpha) return score;
+            }
+
+            // A null move directly after another one would just hand the turn back.
+            if (pruning.contains(Pruning.NULL_MOVE) && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta
+                    && previousMove != Moves.NONE && hasNonPawnMaterial()) {
+                int reduction = 3 + depth / 6;
+                Position enPassant = board.makeNullMove();
+                playedMoves[ply] = Moves.NONE;
+                int score = -pvs(depth - 1 - reduction, ply + 1, -beta, -beta + 1);
+                board.undoNullMove(enPassant);
+                if (stopped) return 0;
+                if (score >= beta) return score >= MATE_BOUND ? beta : score;
+            }
+        }
+
+        boolean futile = !pvNode && !inCheck && pruning.contains(Pruning.FUTILITY) && depth <= FUTILITY_MAX_DEPTH
+                && Math.abs(alpha) < MATE_BOUND && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        int alphaOriginal = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Moves.NONE;
+        int legalMoves = 0;
+        int quietCount = 0;
+        int[] sideHistory = history[board.getTurn().index()];
+        int counterMove = previousMove == Moves.NONE ? Moves.NONE : counterMoves[MovePicker.butterflyIndex(previousMove)];
+
+        MovePicker picker = pickers[ply];
+        picker.init(board, ttMove, killers[ply][0], killers[ply][1], counterMove, sideHistory, false);
+
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            boolean quiet = isQuiet(move);
+            if (!makeMove(picker, move)) continue;
+            legalMoves++;
+            playedMoves[ply] = move;
+            boolean givesCheck = board.isCheck(board.getTurn());
+
+            if (futile && quiet && !givesCheck && legalMoves > 1) {
+                board.unmakeMove();
+                continue;
+            }
+
+            int score;
+            if (legalMoves == 1) {
+                score = -pvs(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                int reduction = 0;
+                if (pruning.contains(Pruning.LATE_MOVE_REDUCTIONS) && depth >= LMR_MIN_DEPTH && legalMoves > LMR_MIN_MOVES
+                        && quiet && !inCheck && !givesCheck) {
+                    reduction = LMR_REDUCTIONS[Math.min(depth, 63)][Math.min(legalMoves, 63)];
+                    if (pvNode) reduction--;
+                    if (move == killers[ply][0] || move == killers[ply][1]) reduction--;
+                    reduction = Math.clamp(reduction, 0, depth - 2);
+                }
+
+                score = -pvs(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha);
+                if (reduction > 0 && score > alpha) score = -pvs(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) score = -pvs(depth - 1, ply + 1, -beta, -alpha);
+            }
+
+            board.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (ply == 0) rootBestMove = move;
+                    if (alpha >= beta) {
+                        if (quiet) updateQuietHeuristics(move, quietsTried[ply], quietCount, depth, ply, previousMove);
+                        break;
+                    }
+                }
+            }
+            if (quiet) quietsTried[ply][quietCount++] = move;
+        }
+
+        if (legalMoves == 0) return inCheck ? -MATE_SCORE + ply : 0;
+
+        int flag;
+        if (bestScore >= beta) {
+            flag = TranspositionTable.FLAG_LOWERBOUND; // Fail-high
+        } else if (bestScore <= alphaOriginal) {
+            flag = TranspositionTable.FLAG_UPPERBOUND; // Fail-low
+        } else {
+            flag = TranspositionTable.FLAG_EXACT;
+        }
+        storeTable(zobristKey, scoreToTable(bestScore, ply), depth, flag, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Captures only, without the ones static exchange evaluation says lose material. A capture is
+     * also skipped when even winning the captured piece outright could not lift the stand-pat
+     * score back to alpha (delta pruning). Results are stored in the transposition table at depth 0,
+     * below any depth the main search probes at before it would drop into quiescence itself.
+     */
+    private int quiescence(int alpha, int beta, int ply, int qDepth) {
+        if (shouldStop()) return 0;
+        nodes++;
+
+        long zobristKey = board.getZobristKey();
+        long entry = probeTable(zobristKey);
+        int ttMove = Moves.NONE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            int score = scoreFromTable(TranspositionTable.score(entry), ply);
+            if (isCutoffBound(TranspositionTable.flag(entry), score, alpha, beta)) return score;
+            ttMove = TranspositionTable.move(entry);
+        }
+
+        int standPat = evaluate(alpha, beta);
+        if (qDepth > MAX_Q_DEPTH || standPat >= beta) return standPat;
+        if (standPat + StaticExchange.PIECE_VALUES[PieceBitboards.QUEEN] + DELTA_MARGIN <= alpha) return standPat;
+        int alphaOriginal = alpha;
+        if (standPat > alpha) alpha = standPat;
+        int bestScore = standPat;
+        int bestMove = Moves.NONE;
+
+        MovePicker picker = pickers[ply];
+        picker.init(board, ttMove, Moves.NONE, Moves.NONE, Moves.NONE, null, true);
+
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            if (Moves.promotion(move) == 0 && standPat + StaticExchange.captureValue(board, move) + DELTA_MARGIN <= alpha) continue;
+            if (!makeMove(picker, move)) continue;
+            int score = -quiescence(-beta, -alpha, ply + 1, qDepth + 1);
+            board.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+
+        int flag;
+        if (bestScore >= beta) {
+            flag = TranspositionTable.FLAG_LOWERBOUND;
+        } else if (bestScore <= alphaOriginal) {
+            flag = TranspositionTable.FLAG_UPPERBOUND;
+        } else {
+            flag = TranspositionTable.FLAG_EXACT;
+        }
+        storeTable(zobristKey, scoreToTable(bestScore, ply), 0, flag, bestMove);
+        return bestScore;
+    }
+
+    private long probeTable(long zobristKey) {
+        long entry = tt.probe(zobristKey);
+        ttProbes++;
+        if (entry != TranspositionTable.NO_ENTRY) ttHits++;
+        return entry;
+    }
+
+    private void storeTable(long zobristKey, int score, int depth, int flag, int bestMove) {
+        tt.store(zobristKey, score, depth, flag, bestMove);
+        ttStores++;
+    }
+
+    private static boolean isCutoffBound(int flag, int score, int alpha, int beta) {
+        return flag == TranspositionTable.FLAG_EXACT
+                || (flag == TranspositionTable.FLAG_LOWERBOUND && score >= beta)
+                || (flag == TranspositionTable.FLAG_UPPERBOUND && score <= alpha);
+    }
+
+    /**
+     * A quiet move that caused a cutoff becomes a killer for its ply and the countermove to the
+     * previous move. Its history score grows with the square of the depth, while the quiet moves
+     * searched before it are penalised by the same amount.
+     */
+    private void updateQuietHeuristics(int move, int[] tried, int triedCount, int depth, int ply, int previousMove) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (previousMove != Moves.NONE) counterMoves[MovePicker.butterflyIndex(previousMove)] = move;
+
+        int[] sideHistory = history[board.getTurn().index()];
+        int bonus = Math.min(depth * depth, HISTORY_MAX);
+        addHistory(sideHistory, MovePicker.butterflyIndex(move), bonus);
+        for (int i = 0; i < triedCount; i++) {
+            addHistory(sideHistory, MovePicker.butterflyIndex(tried[i]), -bonus);
+        }
+    }
+
+    /**
+     * History gravity: entries are pulled back towards zero as they grow, which keeps them inside
+     * {@code [-HISTORY_MAX, HISTORY_MAX]} and lets recent cutoffs outweigh old ones.
+     */
+    private static void addHistory(int[] table, int index, int bonus) {
+        table[index] += bonus - table[index] * Math.abs(bonus) / HISTORY_MAX;
+    }
+
+    /**
+     * Zugzwang guard for null-move pruning: with only king and pawns left, passing is often the
+     * best move and the null-move observation no longer holds.
+     */
+    private boolean hasNonPawnMaterial() {
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        return (bitboards.pieces(us, PieceBitboards.KNIGHT) | bitboards.pieces(us, PieceBitboards.BISHOP)
+                | bitboards.pieces(us, PieceBitboards.ROOK) | bitboards.pieces(us, PieceBitboards.QUEEN)) != 0;
+    }
+
+    private boolean isQuiet(int move) {
+        return Moves.promotion(move) == 0 && !MoveGenerator.isCapture(board, move);
+    }
+
+    /**
+     * Makes a pseudo-legal move from {@code picker}, or refuses it without touching the board when it
+     * would leave the mover's king in check. Search moves go through the board's silent make/unmake,
+     * never through the handler chain of the interactive game.
+     */
+    private boolean makeMove(MovePicker picker, int move) {
+        if (!picker.isLegal(move)) return false;
+        board.makeMove(move);
+        return true;
+    }
+
+    /**
+     * Stalemate is left to the move loop, which sees it as having no legal move while not in check.
+     */
+    private boolean isDrawn() {
+        return board.isFiftyMoveRule() || board.isThreefoldRepetition() || board.isInsufficientMaterial();
+    }
+
+    private int evaluate() {
+        return evaluate(-INFINITY, INFINITY);
+    }
+
+    /**
+     * Lazy evaluation for quiescence, where the stand-pat score only matters relative to the window.
+     */
+    private int evaluate(int alpha, int beta) {
+        if (accumulator != null) return accumulator.evaluate(board.getTurn().index());
+        if (board.getTurn() == Color.WHITE) return BoardEvaluator.evaluate(board, alpha, beta, pawnTable, evalCache);
+        return -BoardEvaluator.evaluate(board, -beta, -alpha, pawnTable, evalCache);
+    }
+
+    /**
+     * Mate scores are stored relative to the node rather than the root, so an entry stays correct
+     * when the same position is reached at a different ply.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    private boolean shouldStop() {
+        if (!stopped && nodes % LIMIT_CHECK_INTERVAL == 0) {
+            long newNodes = nodes - reportedNodes;
+            reportedNodes = nodes;
+            if (stopSignal.get() || timeManager.hardLimitReached(newNodes)) stopped = true;
+        }
+        return stopped;
+    }
+
+    private int firstLegalMove() {
+        MovePicker picker = pickers[0];
+        picker.init(board, Moves.NONE, Moves.NONE, Moves.NONE, Moves.NONE, history[board.getTurn().index()], false);
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            if (makeMove(picker, move)) {
+                board.unmakeMove();
+                return move;
+            }
+        }
+        return Moves.NONE;
+    }
+}
@@ -0,0 +1,100 @@
+package dev.joao_guilherme.chess.engine;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
+import dev.joao_guilherme.chess.movements.Moves;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+import static dev.joao_guilherme.chess.movements.Bitboards.*;
+
+/**
+ * Static exchange evaluation: plays out the capture sequence on the target square, each side always
+ * recapturing with its least valuable attacker, and returns the material balance of the exchange
+ * for the side making the first capture. Either side may stop capturing when continuing would lose
+ * material. Sliders hidden behind a capturing piece join the exchange as soon as it leaves the line.
+ */
+public final class StaticExchange {
+
+    public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 20000};
+
+    /**
+     * Length of the buffer {@link #evaluate(Board, int, int[])} needs: one slot per capture, and
+     * there are never more than 32 pieces to capture with.
+     */
+    public static final int MAX_EXCHANGE = 32;
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Material the first capture wins, not counting any exchange that follows it.
+     */
+    public static int captureValue(Board board, int move) {
+        int victim = board.getBitboards().pieceAt(Moves.to(move));
+        int value = victim != EMPTY ? PIECE_VALUES[typeOf(victim)] : MoveGenerator.isCapture(board, move) ? PIECE_VALUES[PAWN] : 0;
+        if (Moves.promotion(move) != 0) value += PIECE_VALUES[Moves.promotion(move)] - PIECE_VALUES[PAWN];
+        return value;
+    }
+
+    public static int evaluate(Board board, int move) {
+        return evaluate(board, move, new int[MAX_EXCHANGE]);
+    }
+
+    /**
+     * {@link #evaluate(Board, int)} with a caller-owned buffer of at least {@link #MAX_EXCHANGE}
+     * elements, so the search can run it without allocating.
+     */
+    public static int evaluate(Board board, int move, int[] gain) {
+        PieceBitboards bitboards = board.getBitboards();
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int mover = bitboards.pieceAt(from);
+        int side = colorOf(mover);
+
+        long occupied = bitboards.occupied() ^ bit(from);
+        if (typeOf(mover) == PAWN && to == MoveGenerator.enPassantSquare(board)) {
+            occupied ^= bit(side == 0 ? to - 8 : to + 8);
+        }
+
+        gain[0] = captureValue(board, move);
+        int onSquare = Moves.promotion(move) != 0 ? PIECE_VALUES[Moves.promotion(move)] : PIECE_VALUES[typeOf(mover)];
+
+        long diagonalSliders = bitboards.pieces(0, BISHOP) | bitboards.pieces(1, BISHOP) | bitboards.pieces(0, QUEEN) | bitboards.pieces(1, QUEEN);
+        long straightSliders = bitboards.pieces(0, ROOK) | bitboards.pieces(1, ROOK) | bitboards.pieces(0, QUEEN) | bitboards.pieces(1, QUEEN);
+        long attackers = bitboards.attackersTo(to, occupied) & occupied;
+
+        int depth = 0;
+        side ^= 1;
+        while (true) {
+            long ours = attackers & bitboards.occupancy(side);
+            if (ours == 0) break;
+
+            int type = PAWN;
+            long capturer = ours & bitboards.pieces(side, PAWN);
+            while (capturer == 0) {
+                type++;
+                capturer = ours & bitboards.pieces(side, type);
+            }
+            // The king may only recapture when nothing defends the square any more.
+            if (type == KING && (attackers & bitboards.occupancy(side ^ 1)) != 0) break;
+
+            // Capturing here can no longer change the outcome; the side simply stops.
+            if (Math.max(-gain[depth], onSquare - gain[depth]) < 0) break;
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+
+            onSquare = PIECE_VALUES[type];
+            occupied ^= Long.lowestOneBit(capturer);
+            attackers |= (bishopAttacks(to, occupied) & diagonalSliders) | (rookAttacks(to, occupied) & straightSliders);
+            attackers &= occupied;
+            side ^= 1;
+        }
+
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+}
@@ -0,0 +1,69 @@
+package dev.joao_guilherme.chess.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns {@link SearchLimits} into deadlines. The soft deadline is checked between iterations: once it
+ * has passed, the next depth is not started. The hard deadline and the node budget abort the
+ * iteration in progress. The budget counts the nodes of every thread of the search: workers report
+ * theirs in batches when they check the limits.
+ */
+public class TimeManager {
+
+    private static final long MOVE_OVERHEAD_MS = 30;
+    private static final int EXPECTED_MOVES_TO_GO = 30;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long startNanos;
+    private final long softDeadline;
+    private final long hardDeadline;
+    private final long maxNodes;
+    private final int maxDepth;
+    private final AtomicLong searchedNodes = new AtomicLong();
+
+    public TimeManager(SearchLimits limits) {
+        this.startNanos = System.nanoTime();
+        this.maxNodes = limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE;
+        this.maxDepth = limits.maxDepth() > 0 ? Math.min(limits.maxDepth(), SearchLimits.MAX_DEPTH) : SearchLimits.MAX_DEPTH;
+
+        long softMs = NO_DEADLINE;
+        long hardMs = NO_DEADLINE;
+        if (limits.moveTimeMs() > 0) {
+            softMs = hardMs = Math.max(1, limits.moveTimeMs() - MOVE_OVERHEAD_MS);
+        }
+        if (limits.timeBudgetMs() > 0) {
+            hardMs = Math.min(hardMs, limits.timeBudgetMs());
+            softMs = Math.min(softMs, limits.timeBudgetMs() / 2);
+        }
+        if (limits.remainingMs() > 0) {
+            long available = Math.max(1, limits.remainingMs() - MOVE_OVERHEAD_MS);
+            long target = available / EXPECTED_MOVES_TO_GO + limits.incrementMs() * 3 / 4;
+            softMs = Math.min(softMs, Math.min(target, available / 2));
+            hardMs = Math.min(hardMs, Math.min(target * 4, available / 3 + limits.incrementMs() / 2));
+        }
+
+        this.softDeadline = softMs == NO_DEADLINE ? NO_DEADLINE : startNanos + softMs * 1_000_000;
+        this.hardDeadline = hardMs == NO_DEADLINE ? NO_DEADLINE : startNanos + Math.max(softMs, hardMs) * 1_000_000;
+    }
+
+    /**
+     * Adds the nodes a worker searched since its last check to the search-wide count, then tests the
+     * node budget and the hard deadline.
+     */
+    public boolean hardLimitReached(long newNodes) {
+        long nodes = newNodes == 0 ? searchedNodes.get() : searchedNodes.addAndGet(newNodes);
+        return nodes >= maxNodes || (hardDeadline != NO_DEADLINE && System.nanoTime() >= hardDeadline);
+    }
+
+    public boolean softLimitReached() {
+        return softDeadline != NO_DEADLINE && System.nanoTime() >= softDeadline;
+    }
+
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,40 @@
+package dev.joao_guilherme.chess.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event with the transposition table traffic of one search, summed over all of its
+ * threads, and how full the table is when it ends. The workers count probes, hits and stores in
+ * plain fields, so a per-probe event never has to be created.
+ */
+@Name("dev.joao_guilherme.chess.TranspositionTable")
+@Label("Transposition Table Usage")
+@Category({"Chess", "Engine"})
+@Description("Transposition table probes, hits, stores and fill of one search")
+@StackTrace(false)
+public class TranspositionTableEvent extends Event {
+
+    @Label("Probes")
+    long probes;
+
+    @Label("Hits")
+    long hits;
+
+    @Label("Stores")
+    long stores;
+
+    @Label("Hit Rate")
+    @Percentage
+    double hitRate;
+
+    @Label("Table Fill")
+    @Description("Share of sampled slots written during the search")
+    @Percentage
+    double fill;
+}
@@ -6,4 +6,8 @@ public enum Color {
     public Color opposite() {
         return this == BLACK ? WHITE : BLACK;
     }
+
+    public int index() {
+        return this == WHITE ? 0 : 1;
+    }
 }
@@ -0,0 +1,13 @@
+package dev.joao_guilherme.chess.enums;
+
+/**
+ * Selective search techniques that can be switched on and off independently, e.g. to measure what
+ * each one saves on a position suite.
+ */
+public enum Pruning {
+    NULL_MOVE,
+    LATE_MOVE_REDUCTIONS,
+    REVERSE_FUTILITY,
+    FUTILITY,
+    RAZORING
+}
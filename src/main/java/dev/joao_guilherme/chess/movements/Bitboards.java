@@ -0,0 +1,235 @@
+package dev.joao_guilherme.chess.movements;
+
+import dev.joao_guilherme.chess.board.Position;
+
+/**
+ * Precomputed attack tables over 64-bit square sets (a1 = bit 0, h8 = bit 63).
+ * Sliding attacks use magic bitboards: the relevant blockers of a square are multiplied by a
+ * magic constant and the high bits of the product index a table holding the attack set.
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_3 = RANK_1 << 16;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_6 = RANK_1 << 40;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    public static final long[] KING_ATTACKS = new long[64];
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MAGICS = {
+            0x1A00102042008100L, 0x0200201082010040L, 0x4080200008801000L, 0x4100200500081001L,
+            0x1100100204080100L, 0x2100020801000400L, 0x0480008001002200L, 0x2080010014402080L,
+            0x0000802080004000L, 0x0231002100400080L, 0x2002801000200080L, 0x1010801000800800L,
+            0x0888800800810400L, 0x2800808002000400L, 0x0002002801A40200L, 0xA003000100004882L,
+            0x008008C020004000L, 0x0040028020008440L, 0x1850008020001084L, 0x00000A0022004010L,
+            0x0048004004004200L, 0x0084008004800200L, 0x0040040002100148L, 0x2040120010408421L,
+            0x0090400080002090L, 0x4080400180200080L, 0x0520100080200080L, 0x0800102200084200L,
+            0x0000080100110004L, 0x0404040080020080L, 0x0004040101000200L, 0x0880040200204081L,
+            0x1000400080800020L, 0xC020104000802080L, 0x1080401101002000L, 0x0004220012004008L,
+            0x0014000480800802L, 0x2602000802000410L, 0x0812020001010004L, 0x8803008402001041L,
+            0x0480004020004008L, 0x4010002000414000L, 0x0010402001010010L, 0x10C89001000B0020L,
+            0x0248000400808008L, 0x82020008051E0010L, 0x0211000200010104L, 0x0080804084020001L,
+            0x000208450C208200L, 0x004080A001C00980L, 0x0082002080429A00L, 0x0210000800440240L,
+            0x8004008004080080L, 0x1202040080020080L, 0x0000184210210400L, 0x0000040848990200L,
+            0x0162010044928062L, 0x400E044100102082L, 0x5000200008401101L, 0x0112042108100101L,
+            0x2001000402100801L, 0x002A001054088302L, 0x8028280200C11004L, 0x44240E8403104022L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x20404200810A0080L, 0x3009100086004240L, 0x0448021252000492L, 0x0058086305000011L,
+            0x000110404080A208L, 0x0501014841004002L, 0x40C2481608221000L, 0x0280414454104012L,
+            0x0088101082080042L, 0x0040020411020201L, 0x0288040802004285L, 0x0004082090204080L,
+            0x1040040420820200L, 0xB520021210440018L, 0x0400050421600800L, 0x0007102121101082L,
+            0x090441C011140900L, 0x1808200218084880L, 0x0090061810302020L, 0x14A0480401002008L,
+            0x1012011400A22400L, 0x0001010080A00102L, 0x0402080C00A20900L, 0x1004810212090900L,
+            0x0860900021A40100L, 0x0028091484010808L, 0x0402080421005400L, 0x4404080000202040L,
+            0x0031001027004008L, 0x0200408004100404L, 0x4088408002020130L, 0x00120A01028880C4L,
+            0x1808824000086802L, 0x3011108228B01400L, 0x0204004102080205L, 0x0302008020020200L,
+            0x0484108200040104L, 0x1042040040280800L, 0x018204006A010800L, 0x0208022082004042L,
+            0x0011082840100610L, 0x0004020802018440L, 0x0030840048000100L, 0x0802044010400200L,
+            0x224040110A004900L, 0x0050200804201040L, 0x0088108C00800046L, 0x1022180200204082L,
+            0x2028440404410004L, 0x4004208210110840L, 0x1004511108090008L, 0x0022A04820880461L,
+            0x0110088420820004L, 0x018008D050022481L, 0xA0CA100400841040L, 0x0051440880820010L,
+            0x0001CA0800880405L, 0x0800008401088200L, 0x1010800042080410L, 0x0404000020840400L,
+            0x0802048011020214L, 0x0400204004A80082L, 0x0024045010510104L, 0x0022828A02040100L
+    };
+
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        initializeLeaperAttacks();
+        ROOK_TABLE = initializeMagics(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = initializeMagics(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        initializeLines();
+    }
+
+    private Bitboards() {
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long bit(Position position) {
+        return 1L << position.index();
+    }
+
+    public static int file(int square) {
+        return square & 7;
+    }
+
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSETS[square] + (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Squares strictly between two aligned squares, or an empty set when they share no line.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * The full rank, file or diagonal through both squares, or an empty set when they share no line.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    public static boolean aligned(int from, int to) {
+        return LINE[from][to] != 0;
+    }
+
+    public static boolean isDiagonal(int from, int to) {
+        return from != to && Math.abs(file(from) - file(to)) == Math.abs(rank(from) - rank(to));
+    }
+
+    private static void initializeLeaperAttacks() {
+        int[][] knightOffsets = {{-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}, {1, 2}, {2, 1}, {2, -1}, {1, -2}};
+        int[][] kingOffsets = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = offsetsFrom(square, knightOffsets);
+            KING_ATTACKS[square] = offsetsFrom(square, kingOffsets);
+            PAWN_ATTACKS[0][square] = offsetsFrom(square, new int[][]{{-1, 1}, {1, 1}});
+            PAWN_ATTACKS[1][square] = offsetsFrom(square, new int[][]{{-1, -1}, {1, -1}});
+        }
+    }
+
+    private static long offsetsFrom(int square, int[][] offsets) {
+        long targets = 0;
+        for (int[] offset : offsets) {
+            int file = file(square) + offset[0];
+            int rank = rank(square) + offset[1];
+            if (isValidBounds(file, rank)) targets |= bit(rank * 8 + file);
+        }
+        return targets;
+    }
+
+    private static long[] initializeMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantBlockers(square, directions);
+            int bits = Long.bitCount(masks[square]);
+            shifts[square] = 64 - bits;
+            offsets[square] = size;
+            size += 1 << bits;
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            long subset = 0;
+            do {
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                table[offsets[square] + index] = slidingAttacks(square, subset, directions);
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int file = file(square) + direction[0];
+            int rank = rank(square) + direction[1];
+            while (isValidBounds(file + direction[0], rank + direction[1])) {
+                mask |= bit(rank * 8 + file);
+                file += direction[0];
+                rank += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int file = file(square) + direction[0];
+            int rank = rank(square) + direction[1];
+            while (isValidBounds(file, rank)) {
+                long target = bit(rank * 8 + file);
+                attacks |= target;
+                if ((occupied & target) != 0) break;
+                file += direction[0];
+                rank += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static void initializeLines() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) continue;
+                long fromBit = bit(from);
+                long toBit = bit(to);
+                if ((slidingAttacks(from, 0, ROOK_DIRECTIONS) & toBit) != 0) {
+                    BETWEEN[from][to] = slidingAttacks(from, toBit, ROOK_DIRECTIONS) & slidingAttacks(to, fromBit, ROOK_DIRECTIONS);
+                    LINE[from][to] = (slidingAttacks(from, 0, ROOK_DIRECTIONS) & slidingAttacks(to, 0, ROOK_DIRECTIONS)) | fromBit | toBit;
+                } else if ((slidingAttacks(from, 0, BISHOP_DIRECTIONS) & toBit) != 0) {
+                    BETWEEN[from][to] = slidingAttacks(from, toBit, BISHOP_DIRECTIONS) & slidingAttacks(to, fromBit, BISHOP_DIRECTIONS);
+                    LINE[from][to] = (slidingAttacks(from, 0, BISHOP_DIRECTIONS) & slidingAttacks(to, 0, BISHOP_DIRECTIONS)) | fromBit | toBit;
+                }
+            }
+        }
+    }
+
+    private static boolean isValidBounds(int file, int rank) {
+        return file >= 0 && file < 8 && rank >= 0 && rank < 8;
+    }
+}
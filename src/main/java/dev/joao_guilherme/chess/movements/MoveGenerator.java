@@ -0,0 +1,384 @@
+package dev.joao_guilherme.chess.movements;
+
+import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.board.Position;
+import dev.joao_guilherme.chess.enums.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.joao_guilherme.chess.board.PieceBitboards.*;
+import static dev.joao_guilherme.chess.movements.Bitboards.*;
+
+/**
+ * Move generation straight from the bitboards into {@code int} buffers of {@link Moves}-encoded
+ * moves.
+ * <p>
+ * The pseudo-legal generators split moves in two groups so a search can produce them lazily:
+ * captures (including en passant) and queen promotions first, everything else afterwards. Those
+ * moves may still leave the mover's king in check; {@link #isLegal(Board, int)} settles that without
+ * touching the board. {@link #generateLegal} emits legal moves only, using the pinned pieces and the
+ * check mask of the position. Castling is only ever generated when the king neither starts in,
+ * passes through nor lands on an attacked square, and the king and rook stand on their home squares.
+ */
+public final class MoveGenerator {
+
+    public static final int MAX_MOVES = 256;
+
+    private static final int[] UNDER_PROMOTIONS = {KNIGHT, ROOK, BISHOP};
+
+    private MoveGenerator() {
+    }
+
+    public static int generateCaptures(Board board, int[] moves, int count) {
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        long enemies = bitboards.occupancy(us ^ 1);
+        long empty = ~bitboards.occupied();
+
+        long pawns = bitboards.pieces(us, PAWN);
+        long promotionRank = us == 0 ? RANK_8 : RANK_1;
+        for (long from = pawns; from != 0; from &= from - 1) {
+            int square = Long.numberOfTrailingZeros(from);
+            long captures = PAWN_ATTACKS[us][square] & enemies;
+            for (long to = captures; to != 0; to &= to - 1) {
+                int target = Long.numberOfTrailingZeros(to);
+                moves[count++] = Moves.encode(square, target, (bit(target) & promotionRank) != 0 ? QUEEN : 0);
+            }
+            long push = pawnPush(bit(square), us) & empty & promotionRank;
+            if (push != 0) moves[count++] = Moves.encode(square, Long.numberOfTrailingZeros(push), QUEEN);
+        }
+
+        int enPassant = enPassantSquare(board);
+        if (enPassant >= 0) {
+            for (long from = PAWN_ATTACKS[us ^ 1][enPassant] & pawns; from != 0; from &= from - 1) {
+                moves[count++] = Moves.encode(Long.numberOfTrailingZeros(from), enPassant, 0);
+            }
+        }
+
+        return generatePieceMoves(bitboards, us, enemies, moves, count);
+    }
+
+    public static int generateQuiets(Board board, int[] moves, int count) {
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        long enemies = bitboards.occupancy(us ^ 1);
+        long empty = ~bitboards.occupied();
+
+        long promotionRank = us == 0 ? RANK_8 : RANK_1;
+        long doublePushRank = us == 0 ? RANK_4 : RANK_5;
+        for (long from = bitboards.pieces(us, PAWN); from != 0; from &= from - 1) {
+            int square = Long.numberOfTrailingZeros(from);
+            long single = pawnPush(bit(square), us) & empty;
+            if (single == 0) {
+                count = addUnderPromotions(square, PAWN_ATTACKS[us][square] & enemies & promotionRank, moves, count);
+                continue;
+            }
+            int target = Long.numberOfTrailingZeros(single);
+            if ((single & promotionRank) != 0) {
+                count = addUnderPromotions(square, single | (PAWN_ATTACKS[us][square] & enemies), moves, count);
+                continue;
+            }
+            moves[count++] = Moves.encode(square, target, 0);
+            long doublePush = pawnPush(single, us) & empty & doublePushRank;
+            if (doublePush != 0) moves[count++] = Moves.encode(square, Long.numberOfTrailingZeros(doublePush), 0);
+        }
+
+        count = generatePieceMoves(bitboards, us, empty, moves, count);
+        return generateCastling(board, bitboards, us, moves, count);
+    }
+
+    /**
+     * Every legal move of {@code us}. Pinned pieces are confined to the line through their king,
+     * in check only captures of the checker and interpositions are allowed, and in double check only
+     * the king moves.
+     */
+    public static int generateLegal(Board board, int us, int[] moves) {
+        PieceBitboards bitboards = board.getBitboards();
+        int them = us ^ 1;
+        int king = bitboards.kingSquare(us);
+        long own = bitboards.occupancy(us);
+        long enemies = bitboards.occupancy(them);
+        long occupied = bitboards.occupied();
+        long empty = ~occupied;
+        int count = 0;
+
+        // The king is taken off the board so it cannot shelter behind itself from a checking slider.
+        long withoutKing = occupied ^ bit(king);
+        for (long to = KING_ATTACKS[king] & ~own; to != 0; to &= to - 1) {
+            int target = Long.numberOfTrailingZeros(to);
+            if ((bitboards.attackersTo(target, withoutKing) & enemies) == 0) moves[count++] = Moves.encode(king, target, 0);
+        }
+
+        long checkers = bitboards.attackersTo(king, occupied) & enemies;
+        if (Long.bitCount(checkers) > 1) return count;
+
+        long checkMask = checkers == 0 ? ~0L : checkers | between(king, Long.numberOfTrailingZeros(checkers));
+        long pinned = pinnedPieces(bitboards, us, king);
+        long promotionRank = us == 0 ? RANK_8 : RANK_1;
+        long doublePushRank = us == 0 ? RANK_4 : RANK_5;
+
+        for (long from = bitboards.pieces(us, PAWN); from != 0; from &= from - 1) {
+            int square = Long.numberOfTrailingZeros(from);
+            long single = pawnPush(bit(square), us) & empty;
+            long targets = (PAWN_ATTACKS[us][square] & enemies) | single | (pawnPush(single, us) & empty & doublePushRank);
+            targets &= checkMask;
+            if ((pinned & bit(square)) != 0) targets &= line(king, square);
+            for (long to = targets; to != 0; to &= to - 1) {
+                int target = Long.numberOfTrailingZeros(to);
+                if ((bit(target) & promotionRank) != 0) {
+                    moves[count++] = Moves.encode(square, target, QUEEN);
+                    count = addUnderPromotions(square, bit(target), moves, count);
+                } else {
+                    moves[count++] = Moves.encode(square, target, 0);
+                }
+            }
+        }
+
+        int enPassant = us == board.getTurn().index() ? enPassantSquare(board) : -1;
+        if (enPassant >= 0) {
+            for (long from = PAWN_ATTACKS[them][enPassant] & bitboards.pieces(us, PAWN); from != 0; from &= from - 1) {
+                int square = Long.numberOfTrailingZeros(from);
+                if (isEnPassantSafe(bitboards, us, square, enPassant)) moves[count++] = Moves.encode(square, enPassant, 0);
+            }
+        }
+
+        for (int type = KNIGHT; type <= QUEEN; type++) {
+            int code = code(us, type);
+            for (long from = bitboards.pieces(code); from != 0; from &= from - 1) {
+                int square = Long.numberOfTrailingZeros(from);
+                long targets = bitboards.attacks(code, square) & ~own & checkMask;
+                if ((pinned & bit(square)) != 0) targets &= line(king, square);
+                for (long to = targets; to != 0; to &= to - 1) {
+                    moves[count++] = Moves.encode(square, Long.numberOfTrailingZeros(to), 0);
+                }
+            }
+        }
+
+        if (checkers == 0) count = generateCastling(board, bitboards, us, moves, count);
+        return count;
+    }
+
+    public static boolean hasLegalMove(Board board, Color color) {
+        return generateLegal(board, color.index(), new int[MAX_MOVES]) > 0;
+    }
+
+    /**
+     * Distinct legal target squares of the piece standing on {@code from}, for either color.
+     */
+    public static List<Position> legalTargets(Board board, Position from) {
+        int code = board.getBitboards().pieceAt(from.index());
+        if (code == EMPTY) return new ArrayList<>();
+
+        int[] moves = new int[MAX_MOVES];
+        int count = generateLegal(board, colorOf(code), moves);
+        long targets = 0;
+        for (int i = 0; i < count; i++) {
+            if (Moves.from(moves[i]) == from.index()) targets |= bit(Moves.to(moves[i]));
+        }
+
+        List<Position> positions = new ArrayList<>(Long.bitCount(targets));
+        for (; targets != 0; targets &= targets - 1) {
+            positions.add(Position.of(Long.numberOfTrailingZeros(targets)));
+        }
+        return positions;
+    }
+
+    /**
+     * Whether the side to move may play {@code move}, decided from the pins and checks of the current
+     * position without making it.
+     */
+    public static boolean isLegal(Board board, int move) {
+        if (!isPseudoLegal(board, move)) return false;
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        return isLegal(board, move, pinnedPieces(bitboards, us, bitboards.kingSquare(us)), checkMask(board));
+    }
+
+    /**
+     * {@link #isLegal(Board, int)} for a move already known to be pseudo-legal, with the pins and
+     * the {@link #checkMask(Board) check mask} of the side to move worked out once for the node
+     * instead of once per move.
+     */
+    public static boolean isLegal(Board board, int move, long pinned, long checkMask) {
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int king = bitboards.kingSquare(us);
+
+        if (from == king) {
+            if (Math.abs(file(from) - file(to)) == 2) return true;
+            return (bitboards.attackersTo(to, bitboards.occupied() ^ bit(king)) & bitboards.occupancy(us ^ 1)) == 0;
+        }
+        if (typeOf(bitboards.pieceAt(from)) == PAWN && to == enPassantSquare(board)) {
+            return isEnPassantSafe(bitboards, us, from, to);
+        }
+        if ((checkMask & bit(to)) == 0) return false;
+        return (pinned & bit(from)) == 0 || (line(king, from) & bit(to)) != 0;
+    }
+
+    /**
+     * Squares a move other than the king's must land on: every square when the side to move is not
+     * in check, the checker and the squares between it and the king in single check, and none in
+     * double check.
+     */
+    public static long checkMask(Board board) {
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        int king = bitboards.kingSquare(us);
+        long checkers = bitboards.attackersTo(king, bitboards.occupied()) & bitboards.occupancy(us ^ 1);
+        if (checkers == 0) return ~0L;
+        if (Long.bitCount(checkers) > 1) return 0;
+        return checkers | between(king, Long.numberOfTrailingZeros(checkers));
+    }
+
+    /**
+     * Overload for callers holding squares; a pawn reaching the last rank is checked as a queen
+     * promotion, which is legal exactly when the other promotions are.
+     */
+    public static boolean isLegal(Board board, Position from, Position to) {
+        int code = board.getBitboards().pieceAt(from.index());
+        boolean promotion = code != EMPTY && typeOf(code) == PAWN && (to.rank() == 8 || to.rank() == 1);
+        return isLegal(board, Moves.encode(from.index(), to.index(), promotion ? QUEEN : 0));
+    }
+
+    /**
+     * Pieces of {@code us} that are the only blocker between their king and an enemy slider.
+     */
+    public static long pinnedPieces(PieceBitboards bitboards, int us, int king) {
+        int them = us ^ 1;
+        long queens = bitboards.pieces(them, QUEEN);
+        long snipers = (rookAttacks(king, 0) & (bitboards.pieces(them, ROOK) | queens))
+                | (bishopAttacks(king, 0) & (bitboards.pieces(them, BISHOP) | queens));
+        long occupied = bitboards.occupied();
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) pinned |= blockers & bitboards.occupancy(us);
+        }
+        return pinned;
+    }
+
+    /**
+     * En passant removes two pawns from the same rank at once, which can expose the king in ways a
+     * pin test does not see, so the resulting occupancy is checked directly.
+     */
+    private static boolean isEnPassantSafe(PieceBitboards bitboards, int us, int from, int to) {
+        int captured = us == 0 ? to - 8 : to + 8;
+        long occupied = (bitboards.occupied() ^ bit(from) ^ bit(captured)) | bit(to);
+        int king = bitboards.kingSquare(us);
+        return (bitboards.attackersTo(king, occupied) & bitboards.occupancy(us ^ 1) & ~bit(captured)) == 0;
+    }
+
+    /**
+     * Cheap validity check for moves taken from outside the current generation, such as the
+     * transposition table move or a killer: true when the move would be generated here.
+     */
+    public static boolean isPseudoLegal(Board board, int move) {
+        if (move == Moves.NONE) return false;
+        PieceBitboards bitboards = board.getBitboards();
+        int us = board.getTurn().index();
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int code = bitboards.pieceAt(from);
+        if (code == EMPTY || colorOf(code) != us) return false;
+        if ((bitboards.occupancy(us) & bit(to)) != 0) return false;
+
+        int type = typeOf(code);
+        int promotion = Moves.promotion(move);
+        boolean capture = (bitboards.occupancy(us ^ 1) & bit(to)) != 0;
+
+        if (type == PAWN) {
+            boolean reachesLastRank = rank(to) == (us == 0 ? 7 : 0);
+            if (reachesLastRank != (promotion != 0)) return false;
+            if ((PAWN_ATTACKS[us][from] & bit(to)) != 0) return capture || to == enPassantSquare(board);
+            long single = pawnPush(bit(from), us) & ~bitboards.occupied();
+            if ((single & bit(to)) != 0) return true;
+            long doublePush = pawnPush(single, us) & ~bitboards.occupied() & (us == 0 ? RANK_4 : RANK_5);
+            return (doublePush & bit(to)) != 0;
+        }
+        if (promotion != 0) return false;
+        if (type == KING && Math.abs(file(from) - file(to)) == 2) {
+            int[] buffer = new int[2];
+            int castles = generateCastling(board, bitboards, us, buffer, 0);
+            for (int i = 0; i < castles; i++) {
+                if (buffer[i] == move) return true;
+            }
+            return false;
+        }
+        return (bitboards.attacks(code, from) & bit(to)) != 0;
+    }
+
+    /**
+     * True for captures, en passant included. Promotions without a capture are not captures.
+     */
+    public static boolean isCapture(Board board, int move) {
+        PieceBitboards bitboards = board.getBitboards();
+        int to = Moves.to(move);
+        if (bitboards.pieceAt(to) != EMPTY) return true;
+        return typeOf(bitboards.pieceAt(Moves.from(move))) == PAWN && to == enPassantSquare(board);
+    }
+
+    /**
+     * The square a pawn of the side to move could capture en passant on, or -1.
+     */
+    public static int enPassantSquare(Board board) {
+        Position enPassant = board.getEnPassantAvailablePosition();
+        if (enPassant == null || !board.isEnPassantLocation(board.getTurn(), enPassant)) return -1;
+        return enPassant.index();
+    }
+
+    private static int generatePieceMoves(PieceBitboards bitboards, int us, long targets, int[] moves, int count) {
+        for (int type = KNIGHT; type <= KING; type++) {
+            int code = code(us, type);
+            for (long from = bitboards.pieces(code); from != 0; from &= from - 1) {
+                int square = Long.numberOfTrailingZeros(from);
+                for (long to = bitboards.attacks(code, square) & targets; to != 0; to &= to - 1) {
+                    moves[count++] = Moves.encode(square, Long.numberOfTrailingZeros(to), 0);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int generateCastling(Board board, PieceBitboards bitboards, int us, int[] moves, int count) {
+        int rights = board.getCastlingRights();
+        int kingSideRight = us == 0 ? Board.WHITE_KING_SIDE : Board.BLACK_KING_SIDE;
+        int queenSideRight = us == 0 ? Board.WHITE_QUEEN_SIDE : Board.BLACK_QUEEN_SIDE;
+        if ((rights & (kingSideRight | queenSideRight)) == 0) return count;
+
+        int king = us == 0 ? 4 : 60;
+        if ((bitboards.pieces(us, KING) & bit(king)) == 0) return count;
+        int them = us ^ 1;
+        if (bitboards.isAttacked(king, them)) return count;
+
+        // The rights are trusted only as far as the pieces they refer to are really in place.
+        long rooks = bitboards.pieces(us, ROOK);
+        long occupied = bitboards.occupied();
+        if ((rights & kingSideRight) != 0 && (rooks & bit(king + 3)) != 0 && (between(king, king + 3) & occupied) == 0
+                && !bitboards.isAttacked(king + 1, them) && !bitboards.isAttacked(king + 2, them)) {
+            moves[count++] = Moves.encode(king, king + 2, 0);
+        }
+        if ((rights & queenSideRight) != 0 && (rooks & bit(king - 4)) != 0 && (between(king, king - 4) & occupied) == 0
+                && !bitboards.isAttacked(king - 1, them) && !bitboards.isAttacked(king - 2, them)) {
+            moves[count++] = Moves.encode(king, king - 2, 0);
+        }
+        return count;
+    }
+
+    private static int addUnderPromotions(int from, long targets, int[] moves, int count) {
+        for (long to = targets; to != 0; to &= to - 1) {
+            int target = Long.numberOfTrailingZeros(to);
+            for (int type : UNDER_PROMOTIONS) {
+                moves[count++] = Moves.encode(from, target, type);
+            }
+        }
+        return count;
+    }
+
+    private static long pawnPush(long pawns, int us) {
+        return us == 0 ? pawns << 8 : pawns >>> 8;
+    }
+}
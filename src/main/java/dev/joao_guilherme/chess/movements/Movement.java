@@ -1,14 +1,13 @@
 package dev.joao_guilherme.chess.movements;
 
 import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.PieceBitboards;
 import dev.joao_guilherme.chess.board.Position;
 import dev.joao_guilherme.chess.enums.Color;
 import dev.joao_guilherme.chess.pieces.King;
 import dev.joao_guilherme.chess.pieces.Piece;
 import dev.joao_guilherme.chess.pieces.Rook;
 
-import java.util.Optional;
-
 import static java.lang.Math.abs;
 import static java.util.function.Predicate.not;
 
@@ -16,33 +15,8 @@ import static java.util.function.Predicate.not;
 public abstract class Movement {
 
     public static boolean noPieceInBetween(Board board, Position from, Position to) {
-        return isDiagonal(from, to) ? noPieceInBetweenDiagonal(board,from, to) : noPieceInBetweenStraight(board, from, to);
-    }
-
-    private static boolean noPieceInBetweenDiagonal(Board board,Position from, Position to) {
-        return isDiagonal(from, to) && noPieceInBetween(board, from, to, true);
-    }
-
-    private static boolean noPieceInBetweenStraight(Board board,Position from, Position to) {
-        return isStraight(from, to) && noPieceInBetween(board, from, to, false);
-    }
-
-    private static boolean noPieceInBetween(Board board, Position from, Position to, boolean diagonal) {
-        if (to == null || from == null || from.equals(to)) return false;
-        int rowDir = Integer.signum(to.getRow() - from.getRow());
-        int colDir = Integer.signum(to.getColumn() - from.getColumn());
-        int currentRow = from.getRow() + rowDir;
-        int currentCol = from.getColumn() + colDir;
-
-        while (currentRow != to.getRow() || currentCol != to.getColumn()) {
-            if (diagonal && Math.abs(currentRow - from.getRow()) != Math.abs(currentCol - from.getColumn())) break;
-            Position pos = Position.of(currentCol, currentRow);
-            Optional<Piece> blocker = board.findPieceAt(pos);
-            if (blocker.isPresent()) return false;
-            currentRow += rowDir;
-            currentCol += colDir;
-        }
-        return true;
+        if (isMovementInvalid(from, to) || !Bitboards.aligned(from.index(), to.index())) return false;
+        return (Bitboards.between(from.index(), to.index()) & board.getBitboards().occupied()) == 0;
     }
 
     public static boolean isDiagonal(Position from, Position to) {
@@ -88,6 +62,9 @@ public abstract class Movement {
         if (distance(from, to) != 2) return false;
         if (king.isInCheck(board)) return false;
         boolean kingSide = to.file() == 'g';
+        Color enemy = king.getColor().opposite();
+        Position transit = Position.of(from.index() + (kingSide ? 1 : -1));
+        if (board.isSquareAttacked(transit, enemy) || board.isSquareAttacked(to, enemy)) return false;
         return board.findPieceAt(Position.of((kingSide ? 'H' : 'A'), from.rank()))
                 .filter(Rook.class::isInstance)
                 .map(Rook.class::cast)
@@ -106,19 +83,21 @@ public abstract class Movement {
     }
 
     public static boolean noPieceAtTarget(Board board, Position to) {
-        return board.findPieceAt(to).isEmpty();
+        return (board.getBitboards().occupied() & Bitboards.bit(to)) == 0;
     }
 
     public static boolean noSameColorPieceAtTarget(Board board, Color color, Position to) {
-        return board.findPieceAt(to).map(piece -> piece.isNotSameColor(color)).orElse(true);
+        return (board.getBitboards().occupancy(color) & Bitboards.bit(to)) == 0;
     }
 
     public static boolean hasOpponentPieceAtTarget(Board board, Color color, Position position) {
-        return board.findPieceAt(position).map(piece -> piece.isNotSameColor(color)).orElse(false);
+        return (board.getBitboards().occupancy(color.opposite()) & Bitboards.bit(position)) != 0;
     }
 
     public static boolean isCapturingMove(Board board, Piece piece, Position to) {
-        return hasOpponentPieceAtTarget(board, piece.getColor(), to) && noSameColorPieceAtTarget(board, piece.getColor(), to) && !board.findPieceAt(to).map(King.class::isInstance).orElse(false);
+        PieceBitboards bitboards = board.getBitboards();
+        long capturable = bitboards.occupancy(piece.getColor().opposite()) & ~bitboards.pieces(piece.getColor().opposite().index(), PieceBitboards.KING);
+        return (capturable & Bitboards.bit(to)) != 0;
     }
 
     public static boolean isPawnTwoRowFirstMove(Position from, Position to) {
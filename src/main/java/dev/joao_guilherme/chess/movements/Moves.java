@@ -0,0 +1,68 @@
+package dev.joao_guilherme.chess.movements;
+
+import dev.joao_guilherme.chess.board.PieceBitboards;
+import dev.joao_guilherme.chess.board.Position;
+import dev.joao_guilherme.chess.pieces.*;
+
+/**
+ * Compact move encoding: bits 0-5 hold the origin square, bits 6-11 the target square and
+ * bits 12-14 the {@link PieceBitboards} type a pawn promotes to (0 when the move is no promotion).
+ */
+public final class Moves {
+
+    public static final int NONE = 0;
+
+    private Moves() {
+    }
+
+    public static int encode(int from, int to, int promotionType) {
+        return from | (to << 6) | (promotionType << 12);
+    }
+
+    public static int encode(Position from, Position to, Class<? extends Piece> promotion) {
+        return encode(from.index(), to.index(), promotionType(promotion));
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static int promotionType(Class<? extends Piece> promotion) {
+        if (promotion == null) return 0;
+        if (promotion == Queen.class) return PieceBitboards.QUEEN;
+        if (promotion == Rook.class) return PieceBitboards.ROOK;
+        if (promotion == Bishop.class) return PieceBitboards.BISHOP;
+        if (promotion == Knight.class) return PieceBitboards.KNIGHT;
+        throw new IllegalArgumentException("Invalid promotion piece: " + promotion.getName());
+    }
+
+    public static Class<? extends Piece> promotionClass(int move) {
+        return switch (promotion(move)) {
+            case PieceBitboards.QUEEN -> Queen.class;
+            case PieceBitboards.ROOK -> Rook.class;
+            case PieceBitboards.BISHOP -> Bishop.class;
+            case PieceBitboards.KNIGHT -> Knight.class;
+            default -> null;
+        };
+    }
+
+    public static String toString(int move) {
+        if (move == NONE) return "0000";
+        String promotion = switch (promotion(move)) {
+            case PieceBitboards.QUEEN -> "q";
+            case PieceBitboards.ROOK -> "r";
+            case PieceBitboards.BISHOP -> "b";
+            case PieceBitboards.KNIGHT -> "n";
+            default -> "";
+        };
+        return Position.of(from(move)) + "" + Position.of(to(move)) + promotion;
+    }
+}
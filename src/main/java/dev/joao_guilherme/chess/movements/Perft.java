@@ -0,0 +1,167 @@
+package dev.joao_guilherme.chess.movements;
+
+import dev.joao_guilherme.chess.board.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, the standard check that move
+ * generation and {@link Board#makeMove(int)}/{@link Board#unmakeMove()} agree with published
+ * results. The last ply is bulk counted from the legal move list instead of being played.
+ * <p>
+ * Each root move is searched on its own copy of the board as a fork-join task. An optional hash
+ * table, shared by the tasks without locking, remembers subtree counts by Zobrist key and depth;
+ * like the {@link dev.joao_guilherme.chess.board.TranspositionTable} each slot stores
+ * {@code key ^ data} beside {@code data}, so a torn write reads as a miss.
+ */
+public class Perft {
+
+    private static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final int DEPTH_BITS = 8;
+
+    private final long[] table;
+    private final int slotMask;
+
+    public Perft() {
+        this(0);
+    }
+
+    /**
+     * @param hashMb size of the hash table in megabytes, 0 to count without one
+     */
+    public Perft(int hashMb) {
+        if (hashMb <= 0) {
+            this.table = null;
+            this.slotMask = 0;
+            return;
+        }
+        long slots = Long.highestOneBit((long) hashMb * 1024 * 1024 / (2 * Long.BYTES));
+        slots = Math.min(slots, 1L << 28);
+        this.table = new long[(int) slots * 2];
+        this.slotMask = (int) slots - 1;
+    }
+
+    public record Division(int move, long nodes) {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: Perft \"<fen>\"|startpos <depth> [--hash=MB] [--threads=N]");
+            return;
+        }
+        Board board = Board.fromFen(args[0].equals("startpos") ? START_POSITION : args[0]);
+        int depth = Integer.parseInt(args[1]);
+        int hashMb = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--hash=")) hashMb = Integer.parseInt(args[i].substring(7));
+            else if (args[i].startsWith("--threads=")) threads = Integer.parseInt(args[i].substring(10));
+            else throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+
+        Perft perft = new Perft(hashMb);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        long start = System.nanoTime();
+        List<Division> divisions = perft.divide(board, depth, pool);
+        long elapsedNanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        long total = 0;
+        for (Division division : divisions) {
+            System.out.println(Moves.toString(division.move()) + ": " + division.nodes());
+            total += division.nodes();
+        }
+        long elapsedMs = elapsedNanos / 1_000_000;
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.println("Time: " + elapsedMs + " ms");
+        System.out.println("NPS: " + (elapsedNanos == 0 ? 0 : total * 1_000_000_000L / elapsedNanos));
+    }
+
+    /**
+     * Leaf count under each legal move of the side to move, in generation order, with the root moves
+     * split across {@code pool}. The board is left untouched.
+     *
+     * @throws IllegalArgumentException if {@code depth} is below 1, which has no moves to divide by
+     */
+    public List<Division> divide(Board board, int depth, ForkJoinPool pool) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1: " + depth);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(board, board.getTurn().index(), moves);
+
+        List<RootTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RootTask task = new RootTask(board.clone(), moves[i], depth - 1);
+            pool.execute(task);
+            tasks.add(task);
+        }
+        List<Division> divisions = new ArrayList<>(count);
+        for (RootTask task : tasks) {
+            divisions.add(new Division(task.move, task.join()));
+        }
+        return divisions;
+    }
+
+    /**
+     * Leaf count of the position to {@code depth} plies on the calling thread; the position itself
+     * is the only leaf at depth 0 or below.
+     */
+    public long count(Board board, int depth) {
+        if (depth <= 0) return 1;
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(board, board.getTurn().index(), moves);
+        if (depth == 1) return count;
+
+        long key = board.getZobristKey();
+        long cached = probe(key, depth);
+        if (cached >= 0) return cached;
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += count(board, depth - 1);
+            board.unmakeMove();
+        }
+        store(key, depth, nodes);
+        return nodes;
+    }
+
+    private long probe(long key, int depth) {
+        if (table == null) return -1;
+        int slot = ((int) key & slotMask) * 2;
+        long data = table[slot + 1];
+        if ((table[slot] ^ data) != key || (data & ((1 << DEPTH_BITS) - 1)) != depth) return -1;
+        return data >>> DEPTH_BITS;
+    }
+
+    private void store(long key, int depth, long nodes) {
+        if (table == null) return;
+        int slot = ((int) key & slotMask) * 2;
+        long data = nodes << DEPTH_BITS | depth;
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    private final class RootTask extends RecursiveTask<Long> {
+
+        private final Board board;
+        private final int move;
+        private final int depth;
+
+        private RootTask(Board board, int move, int depth) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            board.makeMove(move);
+            return count(board, depth);
+        }
+    }
+}
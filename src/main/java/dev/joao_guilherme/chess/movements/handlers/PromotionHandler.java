@@ -46,6 +46,7 @@ public class PromotionHandler implements MoveHandler, SupportsHistory {
         record.promotedFrom(pawn);
 
         board.getEventPublisher().publish(new PromotionRequestEvent(from, pawn, to));
+        board.findPieceAt(to).filter(promoted -> promoted != pawn).ifPresent(record::promotedTo);
 
         return true;
     }
@@ -1,13 +1,9 @@
 package dev.joao_guilherme.chess.pieces;
 
 import dev.joao_guilherme.chess.board.Board;
-import dev.joao_guilherme.chess.movements.MoveLookups;
 import dev.joao_guilherme.chess.board.Position;
 import dev.joao_guilherme.chess.enums.Color;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static dev.joao_guilherme.chess.movements.Movement.*;
 
 public final class Bishop extends Piece {
@@ -21,13 +17,6 @@ public final class Bishop extends Piece {
         this.moveCount = piece.moveCount;
     }
 
-    @Override
-    public List<Position> getPossibleMoves(Board board) {
-        List<Position> validMoves = new ArrayList<>();
-        processRays(board, validMoves, MoveLookups.getBishopRays(this.position));
-        return validMoves;
-    }
-
     @Override
     public boolean isValidMove(Board board, Position newPosition) {
         return isDiagonal(this.position, newPosition) && noPieceInBetween(board, position, newPosition) && noSameColorPieceAtTarget(board, color, newPosition) ;
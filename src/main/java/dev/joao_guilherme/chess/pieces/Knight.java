@@ -1,13 +1,9 @@
 package dev.joao_guilherme.chess.pieces;
 
 import dev.joao_guilherme.chess.board.Board;
-import dev.joao_guilherme.chess.movements.MoveLookups;
 import dev.joao_guilherme.chess.board.Position;
 import dev.joao_guilherme.chess.enums.Color;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static dev.joao_guilherme.chess.movements.Movement.isLShaped;
 import static dev.joao_guilherme.chess.movements.Movement.noSameColorPieceAtTarget;
 
@@ -22,20 +18,6 @@ public final class Knight extends Piece {
         this.moveCount = piece.moveCount;
     }
 
-    @Override
-    public List<Position> getPossibleMoves(Board board) {
-        List<Position> candidates = MoveLookups.getKnightMoves(this.position);
-
-        List<Position> validMoves = new ArrayList<>();
-
-        for (Position target : candidates) {
-            if (noSameColorPieceAtTarget(board, this.color, target) && board.isPieceMovementAvoidingCheck(this, target)) {
-                validMoves.add(target);
-            }
-        }
-        return validMoves;
-    }
-
     @Override
     public boolean isValidMove(Board board, Position newPosition) {
         return isLShaped(this.position, newPosition) && noSameColorPieceAtTarget(board, color, newPosition);
@@ -3,10 +3,10 @@ package dev.joao_guilherme.chess.pieces;
 import dev.joao_guilherme.chess.board.Board;
 import dev.joao_guilherme.chess.board.Position;
 import dev.joao_guilherme.chess.enums.Color;
+import dev.joao_guilherme.chess.movements.MoveGenerator;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 public abstract sealed class Piece implements Cloneable permits Bishop, King, Knight, Queen, Pawn, Rook {
 
@@ -37,9 +37,7 @@ public abstract sealed class Piece implements Cloneable permits Bishop, King, Kn
     }
 
     public List<Position> getPossibleMoves(Board board) {
-        return board.getPositions().stream()
-                .filter(to -> board.isPieceMovementAvoidingCheck(this, to))
-                .toList();
+        return MoveGenerator.legalTargets(board, position);
     }
 
     public int getValue() {
@@ -95,26 +93,6 @@ public abstract sealed class Piece implements Cloneable permits Bishop, King, Kn
         return moveCount > 0;
     }
 
-    protected void processRays(Board board, List<Position> moves, List<Position>[] rays) {
-        for (List<Position> ray : rays) {
-            for (Position target : ray) {
-                Optional<Piece> pieceAtTarget = board.findPieceAt(target);
-
-                if (pieceAtTarget.isEmpty()) {
-                    if (board.isPieceMovementAvoidingCheck(this, target)) {
-                        moves.add(target);
-                    }
-                } else {
-                    if (pieceAtTarget.get().isNotSameColor(this.color) && board.isPieceMovementAvoidingCheck(this, target)) {
-                          moves.add(target);
-                        }
-
-                    break;
-                }
-            }
-        }
-    }
-
     @Override
     public Piece clone() {
         try {
@@ -1,13 +1,9 @@
 package dev.joao_guilherme.chess.pieces;
 
 import dev.joao_guilherme.chess.board.Board;
-import dev.joao_guilherme.chess.movements.MoveLookups;
 import dev.joao_guilherme.chess.board.Position;
 import dev.joao_guilherme.chess.enums.Color;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static dev.joao_guilherme.chess.movements.Movement.*;
 
 public final class Queen extends Piece {
@@ -27,16 +23,6 @@ public final class Queen extends Piece {
                 && noPieceInBetween(board, position, newPosition) && noSameColorPieceAtTarget(board, color, newPosition);
     }
 
-    @Override
-    public List<Position> getPossibleMoves(Board board) {
-        List<Position> validMoves = new ArrayList<>();
-
-        processRays(board, validMoves, MoveLookups.getRookRays(this.position));
-        processRays(board, validMoves, MoveLookups.getBishopRays(this.position));
-
-        return validMoves;
-    }
-
     @Override
     public Piece clone() {
         return new Queen(this);
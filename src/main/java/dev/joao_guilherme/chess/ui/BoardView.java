@@ -1,14 +1,16 @@
 package dev.joao_guilherme.chess.ui;
 
 import dev.joao_guilherme.chess.board.Board;
+import dev.joao_guilherme.chess.board.BoardSnapshot;
 import dev.joao_guilherme.chess.board.Position;
 import dev.joao_guilherme.chess.engine.ChessEngine;
-import dev.joao_guilherme.chess.engine.Move;
 import dev.joao_guilherme.chess.enums.Color;
 import dev.joao_guilherme.chess.events.*;
 import dev.joao_guilherme.chess.movements.MoveRecord;
+import dev.joao_guilherme.chess.movements.Moves;
 import dev.joao_guilherme.chess.pieces.*;
 import javafx.application.Platform;
+import javafx.scene.Scene;
 import javafx.scene.layout.GridPane;
 
 import java.util.HashMap;
@@ -50,19 +52,9 @@ public class BoardView extends GridPane {
         });
         eventPublisher.subscribe(TurnEvent.class, event -> {
             System.out.println("Turn changed to: " + event.color());
-            if (event.color().equals(BLACK)) {
-                Thread.ofVirtual().start(() -> {
-                    System.out.println("Computer thinking...");
-                    long startTime = System.currentTimeMillis();
-                    Move move = ChessEngine.computeMove(board);
-                    System.out.println("Computer move: " + move + " in " + (System.currentTimeMillis() - startTime) + "ms");
-                    Platform.runLater(() -> {
-                        if (move.promotion() != null) board.movePieceAndPromote(move.piece().getPosition(), move.to(), move.promotion());
-                        else board.movePiece(move.piece().getPosition(), move.to());
-                    });
-                });
-
-            }
+            // The turn passes before the move is fully recorded (castling rights, en passant, history),
+            // so the engine's snapshot is taken once the current event has been handled.
+            if (event.color().equals(BLACK)) Platform.runLater(this::requestEngineMove);
         });
 
         eventPublisher.subscribe(TurnEvent.class, event -> {
@@ -122,10 +114,64 @@ public class BoardView extends GridPane {
         squares.forEach((_, positionView) -> positionView.setRotate(rotation));
     }
 
+    /**
+     * Searches a snapshot of the board on a virtual thread and plays the result on the FX thread. The
+     * engine never sees the live board; if it changed during the search the result is discarded and,
+     * when it is still the engine's turn, the new position is searched.
+     */
+    private void requestEngineMove() {
+        if (!board.getTurn().equals(BLACK)) return;
+        BoardSnapshot snapshot = board.snapshot();
+        Thread.ofVirtual().start(() -> {
+            int move = ChessEngine.computeMove(snapshot);
+            MoveRenderEvent renderEvent = new MoveRenderEvent();
+            renderEvent.begin();
+            Platform.runLater(() -> {
+                if (move == Moves.NONE) return;
+                if (board.getZobristKey() != snapshot.getZobristKey()) {
+                    System.err.println("Discarding engine move " + Moves.toString(move) + ": the position changed during the search");
+                    requestEngineMove();
+                    return;
+                }
+                Position from = Position.of(Moves.from(move));
+                Position to = Position.of(Moves.to(move));
+                if (Moves.promotion(move) != 0) board.movePieceAndPromote(from, to, Moves.promotionClass(move));
+                else board.movePiece(from, to);
+                commitOnRender(renderEvent, move, true);
+            });
+        });
+    }
+
     public void performMove(Position origin, Position target) {
+        MoveRenderEvent renderEvent = new MoveRenderEvent();
+        renderEvent.begin();
         if (!board.movePiece(origin, target)) {
             SoundPlayer.playInvalidMove();
+            return;
         }
+        commitOnRender(renderEvent, Moves.encode(origin, target, null), false);
+    }
+
+    /**
+     * Commits the event from the first layout pulse after the move, once the scene graph shows it.
+     */
+    private void commitOnRender(MoveRenderEvent event, int move, boolean engine) {
+        Scene scene = getScene();
+        if (scene == null || !event.isEnabled()) return;
+        event.move = Moves.toString(move);
+        event.engine = engine;
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean committed;
+
+            @Override
+            public void run() {
+                if (committed) return;
+                committed = true;
+                event.commit();
+                // Listeners cannot be removed while the pulse is iterating over them.
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+            }
+        });
     }
 
     public Color getTurn() {
@@ -0,0 +1,27 @@
+package dev.joao_guilherme.chess.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a move from the moment it is chosen, by the player dropping a
+ * piece or the engine returning its move, to the first layout pulse that shows it on the board.
+ */
+@Name("dev.joao_guilherme.chess.MoveRender")
+@Label("Move to Render")
+@Category({"Chess", "UI"})
+@Description("Latency from choosing a move to the board showing it")
+@StackTrace(false)
+public class MoveRenderEvent extends Event {
+
+    @Label("Move")
+    String move;
+
+    @Label("Engine Move")
+    @Description("Whether the engine chose the move rather than the player")
+    boolean engine;
+}